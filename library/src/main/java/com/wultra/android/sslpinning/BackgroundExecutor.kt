@@ -0,0 +1,92 @@
+/*
+ * Copyright 2026 Wultra s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package com.wultra.android.sslpinning
+
+import com.wultra.android.sslpinning.service.WultraDebug
+import java.util.concurrent.LinkedBlockingQueue
+import java.util.concurrent.ThreadFactory
+import java.util.concurrent.ThreadPoolExecutor
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicInteger
+
+/**
+ * Executor for background tasks of all [CertStore] instances without an executor service
+ * in the configuration.
+ *
+ * The pool is created on the first task and has at most [MAX_THREADS] daemon threads.
+ * Idle threads are terminated, so the pool doesn't hold any thread when there's no work.
+ * Tasks are queued while all threads are busy. The queue isn't bounded, but concurrent updates
+ * of a store share a single task, so the number of queued tasks stays small.
+ */
+internal object BackgroundExecutor {
+
+    private const val MAX_THREADS = 2
+    private const val KEEP_ALIVE_SECONDS = 30L
+    private const val THREAD_NAME_PREFIX = "CertStoreBackground"
+
+    @Volatile
+    private var created = false
+
+    private val executor: ThreadPoolExecutor by lazy {
+        val counter = AtomicInteger()
+        val threadFactory = ThreadFactory { runnable ->
+            Thread(runnable, "$THREAD_NAME_PREFIX-${counter.incrementAndGet()}").apply {
+                isDaemon = true
+                // maps to Process.THREAD_PRIORITY_BACKGROUND on Android
+                priority = Thread.NORM_PRIORITY - 1
+                uncaughtExceptionHandler = Thread.UncaughtExceptionHandler { t, e ->
+                    WultraDebug.error("Background task failed, $t crashed with $e.")
+                }
+            }
+        }
+        val executor = ThreadPoolExecutor(MAX_THREADS, MAX_THREADS, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+                LinkedBlockingQueue(), threadFactory)
+        executor.allowCoreThreadTimeOut(true)
+        created = true
+        executor
+    }
+
+    /**
+     * Run the task on the shared pool.
+     *
+     * @param runnable Task to run.
+     * @param taskName Name of the task, used as the thread name while the task is running.
+     */
+    fun execute(runnable: Runnable, taskName: String) {
+        executor.execute {
+            val thread = Thread.currentThread()
+            val threadName = thread.name
+            thread.name = "$threadName-$taskName"
+            try {
+                runnable.run()
+            } finally {
+                thread.name = threadName
+            }
+        }
+    }
+
+    /**
+     * Current load of the pool.
+     */
+    val statistics: BackgroundExecutorStatistics
+        get() {
+            if (!created) {
+                return BackgroundExecutorStatistics(queuedTasks = 0, activeTasks = 0)
+            }
+            return BackgroundExecutorStatistics(queuedTasks = executor.queue.size, activeTasks = executor.activeCount)
+        }
+}
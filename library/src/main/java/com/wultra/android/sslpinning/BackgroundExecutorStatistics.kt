@@ -0,0 +1,29 @@
+/*
+ * Copyright 2026 Wultra s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package com.wultra.android.sslpinning
+
+/**
+ * Load of the shared executor running [CertStore] updates and other background tasks
+ * when no executor service is set in [CertStoreConfiguration].
+ *
+ * @property queuedTasks Number of tasks waiting for a free thread.
+ * @property activeTasks Approximate number of tasks being executed.
+ *
+ * @since 1.5.0
+ */
+data class BackgroundExecutorStatistics(val queuedTasks: Int,
+                                        val activeTasks: Int)
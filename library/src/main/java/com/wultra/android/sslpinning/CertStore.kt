@@ -18,29 +18,46 @@ package com.wultra.android.sslpinning
 
 import android.os.Handler
 import android.os.Looper
-import android.os.Process
 import android.util.Base64
 import androidx.annotation.WorkerThread
 import com.google.gson.Gson
 import com.google.gson.GsonBuilder
+import com.wultra.android.sslpinning.integration.SSLPinningIntegration
 import com.wultra.android.sslpinning.interfaces.CryptoProvider
+import com.wultra.android.sslpinning.interfaces.ECPublicKey
 import com.wultra.android.sslpinning.interfaces.SecureDataStore
 import com.wultra.android.sslpinning.interfaces.SignedData
 import com.wultra.android.sslpinning.model.CachedData
 import com.wultra.android.sslpinning.model.CertificateInfo
+import com.wultra.android.sslpinning.model.CertificateSnapshot
 import com.wultra.android.sslpinning.model.GetFingerprintResponse
 import com.wultra.android.sslpinning.service.*
 import com.wultra.android.sslpinning.service.UpdateScheduler
 import com.wultra.android.sslpinning.util.ByteArrayTypeAdapter
+import com.wultra.android.sslpinning.util.CacheStatistics
 import com.wultra.android.sslpinning.util.CertUtils
+import com.wultra.android.sslpinning.util.CertificateFingerprintCache
 import com.wultra.android.sslpinning.util.DateTypeAdapter
+import com.wultra.android.sslpinning.util.ParallelVerifier
 import java.lang.IllegalArgumentException
 import java.security.cert.X509Certificate
 import java.util.*
+import java.util.concurrent.Future
+import java.util.concurrent.CopyOnWriteArraySet
+import java.util.concurrent.FutureTask
+import java.util.concurrent.RejectedExecutionException
+import java.util.concurrent.atomic.AtomicBoolean
+import java.util.concurrent.atomic.AtomicLong
+import java.util.concurrent.atomic.AtomicReference
+import javax.net.ssl.SSLContext
+import javax.net.ssl.SSLSocketFactory
 
 /**
  * The main class that provides features of the dynamic SSL pinning library.
  *
+ * The public key from the configuration is imported with the [CryptoProvider] when the store is created.
+ * [IllegalArgumentException] is thrown if the provider can't import the key.
+ *
  * @author Tomas Kypta, tomas.kypta@wultra.com
  */
 class CertStore internal constructor(private val configuration: CertStoreConfiguration,
@@ -56,7 +73,74 @@ class CertStore internal constructor(private val configuration: CertStoreConfigu
     private var cachedData: CachedData? = null
     private var fallbackCertificates = emptyArray<CertificateInfo>()
 
-    private val validationObservers: MutableSet<ValidationObserver> = mutableSetOf()
+    /**
+     * Immutable snapshot of all certificates used for the validation.
+     * It's replaced under the store lock whenever the data change and read without locking.
+     */
+    @Volatile
+    private var snapshot = CertificateSnapshot.EMPTY
+
+    /**
+     * Generation of the last published snapshot. Guarded by the store lock.
+     */
+    private var generation = 0L
+
+    /**
+     * Data published to the validation but not persisted yet.
+     */
+    private val pendingData = AtomicReference<CachedData?>()
+
+    /**
+     * Set when loading of the data was scheduled by a non-blocking validation.
+     */
+    private val preloadScheduled = AtomicBoolean(false)
+
+    /**
+     * Lock serializing access to [secureDataStore]. Never acquire the store lock while holding it.
+     */
+    private val persistLock = Any()
+
+    /**
+     * Lock guarding [inFlightUpdate].
+     */
+    private val updateLock = Any()
+
+    /**
+     * Update currently fetching the data from the server, if any.
+     */
+    private var inFlightUpdate: InFlightUpdate? = null
+
+    /**
+     * Counters of validation results.
+     */
+    private val validationStatistics = ValidationStatisticsCounter()
+
+    /**
+     * Public key from the configuration, imported once and reused for all signature checks.
+     */
+    private val importedPublicKey: ECPublicKey
+
+    /**
+     * Fingerprints of recently validated certificates.
+     */
+    private val fingerprintCache = CertificateFingerprintCache()
+
+    /**
+     * Results of recent validations, valid only for the snapshot generation they were computed for.
+     */
+    private val resultCache = ValidationResultCache()
+
+    private val validationObservers: MutableSet<ValidationObserver> = CopyOnWriteArraySet()
+
+    /**
+     * Internal listeners notified when the validated certificates change.
+     */
+    private val snapshotListeners: MutableSet<(CertificateSnapshot) -> Unit> = CopyOnWriteArraySet()
+
+    /**
+     * Generation of the last snapshot the listeners were notified about.
+     */
+    private val notifiedGeneration = AtomicLong(0)
     private val mainThreadHandler = Handler(Looper.getMainLooper())
 
     companion object {
@@ -68,6 +152,17 @@ class CertStore internal constructor(private val configuration: CertStoreConfigu
                 .registerTypeAdapter(Date::class.java, DateTypeAdapter())
                 .create()
 
+        /**
+         * Returns the load of the executor shared by all [CertStore] instances without
+         * an executor service in the configuration.
+         *
+         * @since 1.5.0
+         */
+        @JvmStatic
+        fun getBackgroundExecutorStatistics(): BackgroundExecutorStatistics {
+            return BackgroundExecutor.statistics
+        }
+
         /**
          * Name of HTTP request header in case that challenge is used.
          */
@@ -77,14 +172,33 @@ class CertStore internal constructor(private val configuration: CertStoreConfigu
          * lowercase to properly match various name forms (lowercase, capitalized, etc...)
          */
         internal const val RESPONSE_SIGNATURE_HEADER = "x-cert-pinning-signature"
+        /**
+         * Names of HTTP request headers for conditional requests.
+         */
+        internal const val REQUEST_IF_NONE_MATCH_HEADER = "If-None-Match"
+        internal const val REQUEST_IF_MODIFIED_SINCE_HEADER = "If-Modified-Since"
+        /**
+         * Names of HTTP response headers for conditional requests. The header names are lowercase.
+         */
+        internal const val RESPONSE_ETAG_HEADER = "etag"
+        internal const val RESPONSE_LAST_MODIFIED_HEADER = "last-modified"
+        /**
+         * HTTP response code for a conditional request when the data didn't change.
+         */
+        private const val HTTP_NOT_MODIFIED = 304
     }
 
     init {
         configuration.validate()
+        importedPublicKey = cryptoProvider.importECPublicKey(publicKey = configuration.publicKey)
+                ?: throw IllegalArgumentException("Illegal configuration public key")
         if (remoteDataProvider != null) {
             this.remoteDataProvider = remoteDataProvider
         } else {
-            this.remoteDataProvider = RestApi(baseUrl = configuration.serviceUrl, sslValidationStrategy = configuration.sslValidationStrategy)
+            this.remoteDataProvider = RestApi(
+                    baseUrl = configuration.serviceUrl,
+                    sslValidationStrategy = configuration.sslValidationStrategy,
+                    keepAlive = configuration.keepAliveConnections)
         }
     }
 
@@ -101,45 +215,151 @@ class CertStore internal constructor(private val configuration: CertStoreConfigu
             return configuration.identifier ?: "default"
         }
 
+    /**
+     * SSL socket factory with pinning to this store, shared by the integrations.
+     * See [SSLPinningIntegration.getSSLPinningSocketFactory].
+     */
+    internal val sslPinningSocketFactory: SSLSocketFactory by lazy {
+        SSLPinningIntegration.createSSLPinningSocketFactory(this)
+    }
+
+    /**
+     * SSL context with non-blocking pinning to this store, shared by the integrations.
+     * See [SSLPinningIntegration.createSSLPinningEngine].
+     */
+    internal val nonBlockingSSLContext: SSLContext by lazy {
+        SSLPinningIntegration.createSSLPinningContext(this, true)
+    }
+
+    /**
+     * Returns the number of validations per common name grouped by the result.
+     *
+     * Counting is cheap and doesn't depend on registered validation observers.
+     * Use this method if you need just the counts, for example for analytics.
+     *
+     * Only pinned common names, the [CertStoreConfiguration.expectedCommonNames] or names with
+     * fingerprints in the store, are counted separately. Validations of any other common names
+     * are counted together under [ValidationStatistics.OTHER_COMMON_NAMES].
+     *
+     * @param reset If true, the counters are set to zero after reading, so the next call
+     * returns only validations done in the meantime.
+     * @return Map of common names to the statistics. Common names without any validation are not included.
+     *
+     * @since 1.5.0
+     */
+    @JvmOverloads
+    fun getValidationStatistics(reset: Boolean = false): Map<String, ValidationStatistics> {
+        return validationStatistics.snapshot(reset)
+    }
+
+    /**
+     * Statistics of the cache of certificate fingerprints used by [validateCertificate].
+     *
+     * The cache is keyed by the encoded certificate, so repeated full handshakes
+     * with the same server certificate are cache hits. Resumed handshakes don't validate
+     * the certificate at all.
+     *
+     * @since 1.5.0
+     */
+    val fingerprintCacheStatistics: CacheStatistics
+        get() = fingerprintCache.statistics
+
     /**
      * Reset [CertStore] data.
      */
-    @Synchronized
     fun reset() {
         WultraDebug.warning("CertStore: reset() should not be used in production build.")
-        cachedData = null
-        secureDataStore.remove(key = instanceIdentifier)
+        withStoreLock {
+            cachedData = null
+            publishSnapshot()
+            synchronized(persistLock) {
+                // drop data waiting for persisting, they're no longer valid
+                pendingData.set(null)
+                secureDataStore.remove(key = instanceIdentifier)
+            }
+        }
     }
 
     /**
      * Internal function returns array of [CertificateInfo] objects.
      * The array contains the fallback certificate, if provided, at the last position.
-     * The operation is thread safe.
+     * The operation is thread safe and doesn't lock once the cache is loaded.
+     * The returned array is shared and must not be modified.
      */
-    @Synchronized
     internal fun getCertificates(): Array<CertificateInfo> {
-        restoreCache()
-        return cachedData?.let { it.certificates + fallbackCertificates } ?: fallbackCertificates
+        return getSnapshot().certificates
+    }
+
+    /**
+     * Internal function returns current [CertificateSnapshot].
+     * The store lock is taken only when the cache hasn't been loaded yet.
+     */
+    private fun getSnapshot(): CertificateSnapshot {
+        if (!cacheIsLoaded) {
+            withStoreLock {
+                restoreCache()
+            }
+        }
+        return snapshot
     }
 
     /**
      * Internal function returns whole `CachedData` structure.
      * The operation is thread safe.
      */
-    @Synchronized
     internal fun getCachedData(): CachedData? {
-        restoreCache()
-        return cachedData
+        return withStoreLock {
+            restoreCache()
+            cachedData
+        }
     }
 
-    @Synchronized
+    /**
+     * Internal function updates the cached data.
+     *
+     * The new data are published to the validation under the store lock first.
+     * They are persisted afterwards, outside of the store lock.
+     *
+     * @param update Function computing new data from the current data. Returns null if the data
+     * should stay unchanged. Called with the store lock held.
+     */
     internal fun updateCachedData(update: (CachedData?) -> CachedData?) {
-        restoreCache()
+        withStoreLock {
+            restoreCache()
+
+            val newData = update(cachedData) ?: return
+            cachedData = newData
+            publishSnapshot()
+            pendingData.set(newData)
+        }
+        persistPendingData()
+    }
 
-        val newData = update(cachedData)
-        if (newData != null) {
+    /**
+     * Add digests of verified entries to the stored data, if there are any.
+     * Certificates don't change, so no new snapshot is published.
+     */
+    private fun rememberVerifiedEntries(digests: Collection<String>) {
+        withStoreLock {
+            restoreCache()
+            val data = cachedData ?: return
+            val newData = data.copy(verifiedEntries = (data.verifiedEntries ?: emptySet()) + digests)
             cachedData = newData
-            saveDataToCache(newData)
+            pendingData.set(newData)
+        }
+        persistPendingData()
+    }
+
+    /**
+     * Persist the most recent data waiting for persisting.
+     *
+     * Writes are coalesced: when more updates publish data before the previous data
+     * are written, only the most recent data are persisted.
+     */
+    private fun persistPendingData() {
+        synchronized(persistLock) {
+            val data = pendingData.getAndSet(null) ?: return
+            saveDataToCache(data)
         }
     }
 
@@ -147,10 +367,129 @@ class CertStore internal constructor(private val configuration: CertStoreConfigu
         if (!cacheIsLoaded) {
             cachedData = loadCachedData()
             fallbackCertificates = loadFallbackCertificates()
+            publishSnapshot()
             cacheIsLoaded = true
         }
     }
 
+    /**
+     * Publish a new snapshot of the current data. Must be called with the store lock held,
+     * the listeners are notified when the lock is released.
+     */
+    private fun publishSnapshot() {
+        generation += 1
+        snapshot = CertificateSnapshot.create(cachedData, fallbackCertificates, generation)
+    }
+
+    /**
+     * Run the block with the store lock held. Snapshot listeners are notified about the snapshot
+     * published by the block after the lock is released.
+     */
+    private inline fun <T> withStoreLock(block: () -> T): T {
+        try {
+            return synchronized(this, block)
+        } finally {
+            notifySnapshotListeners()
+        }
+    }
+
+    /**
+     * Notify the listeners about the current snapshot, unless they already know it.
+     */
+    private fun notifySnapshotListeners() {
+        if (Thread.holdsLock(this)) {
+            // the listeners are notified when the outermost lock is released
+            return
+        }
+        while (true) {
+            val current = snapshot
+            val notified = notifiedGeneration.get()
+            if (current.generation <= notified) {
+                return
+            }
+            if (notifiedGeneration.compareAndSet(notified, current.generation)) {
+                snapshotListeners.forEach { it(current) }
+                return
+            }
+        }
+    }
+
+    /**
+     * Add internal listener notified whenever the validated certificates are loaded or changed.
+     *
+     * The listener is called without the store lock on the thread that changed the data,
+     * so it must not block. When the data change concurrently, the listener may be called
+     * concurrently as well and only the most recent snapshot is guaranteed to be delivered.
+     *
+     * @param listener Listener receiving the new snapshot of the certificates.
+     */
+    internal fun addSnapshotListener(listener: (CertificateSnapshot) -> Unit) {
+        snapshotListeners.add(listener)
+    }
+
+    /**
+     * Remove internal listener added with [addSnapshotListener].
+     */
+    internal fun removeSnapshotListener(listener: (CertificateSnapshot) -> Unit) {
+        snapshotListeners.remove(listener)
+    }
+
+    /**
+     * Check if the store data are already loaded.
+     */
+    internal val isLoaded: Boolean
+        get() = cacheIsLoaded
+
+    /**
+     * Restores the stored fingerprints in the background.
+     *
+     * The data are otherwise loaded lazily on the first validation, which means that the first
+     * TLS handshake has to wait for decrypting and parsing the stored data. Call this method early,
+     * for example during the application startup, to make the first validation fast.
+     *
+     * The task runs either on [java.util.concurrent.ExecutorService] provided in the configuration
+     * or on the background executor shared by all stores if no [java.util.concurrent.ExecutorService] was defined.
+     *
+     * @return Future completed when the data are loaded. If the data are already loaded,
+     * the returned future is already completed.
+     *
+     * @since 1.5.0
+     */
+    fun preload(): Future<Unit> {
+        val task = FutureTask<Unit> {
+            getSnapshot()
+        }
+        if (cacheIsLoaded) {
+            task.run()
+        } else {
+            executeInBackground(task, "CertStorePreload")
+        }
+        return task
+    }
+
+    /**
+     * Returns the snapshot without waiting for the data to load.
+     *
+     * If the data are not loaded yet, their loading is scheduled in the background
+     * (just once) and null is returned.
+     */
+    private fun getSnapshotNonBlocking(): CertificateSnapshot? {
+        if (cacheIsLoaded) {
+            return snapshot
+        }
+        if (preloadScheduled.compareAndSet(false, true)) {
+            executeInBackground(Runnable {
+                try {
+                    getSnapshot()
+                } finally {
+                    // allow another attempt if loading failed
+                    preloadScheduled.set(false)
+                }
+            }, "CertStorePreload")
+        }
+        return null
+    }
+
     /*** STORAGE ***/
 
     internal fun loadCachedData(): CachedData? {
@@ -192,7 +531,11 @@ class CertStore internal constructor(private val configuration: CertStoreConfigu
      * and [UpdateObserver.onUpdateFinished] are always called.
      *
      * The update is scheduled either on an [java.util.concurrent.ExecutorService] provided in the configuration
-     * or on a dedicated [Thread] if no [java.util.concurrent.ExecutorService] was defined in the configuration.
+     * or on an executor shared by all stores if no [java.util.concurrent.ExecutorService] was defined in the configuration.
+     *
+     * Updates requested while another update is fetching the data don't start a new fetch,
+     * their observers get the result of the update in progress. A forced update requested
+     * during the fetch is performed once the current fetch finishes.
      *
      * The update observer is delivered on the main thread.
      * The update observer is held with a strong reference.
@@ -201,7 +544,6 @@ class CertStore internal constructor(private val configuration: CertStoreConfigu
      * @param updateObserver Observer for [UpdateType] and [UpdateResult].
      */
     fun update(mode: UpdateMode = UpdateMode.DEFAULT, updateObserver: UpdateObserver) {
-        val now = Date()
         val updateType = if (mode == UpdateMode.FORCED) {
             UpdateType.DIRECT
         } else {
@@ -217,8 +559,48 @@ class CertStore internal constructor(private val configuration: CertStoreConfigu
                 updateObserver.onUpdateFinished(updateType, UpdateResult.OK)
             }
         } else {
-            doUpdateAsync(now, updateType, updateObserver)
+            scheduleUpdate(mode, updateType, updateObserver)
+        }
+    }
+
+    /**
+     * Observers waiting for the result of a single fetch from the server.
+     */
+    private class InFlightUpdate {
+        val observers = mutableListOf<Pair<UpdateType, UpdateObserver>>()
+        /**
+         * Forced update requested while this update was in flight, started after this one finishes.
+         */
+        var followUp: InFlightUpdate? = null
+    }
+
+    /**
+     * Start the update or attach the observer to the update already in flight.
+     *
+     * Concurrent updates share a single fetch and all their observers get the same result.
+     * A forced update requested during a fetch can't rely on data that might have been requested
+     * before its call, so it waits for a new fetch started right after the current one finishes.
+     * All forced updates arriving in the meantime share that fetch.
+     */
+    private fun scheduleUpdate(mode: UpdateMode, updateType: UpdateType, updateObserver: UpdateObserver) {
+        val newUpdate = synchronized(updateLock) {
+            val current = inFlightUpdate
+            if (current == null) {
+                val update = InFlightUpdate()
+                update.observers.add(updateType to updateObserver)
+                inFlightUpdate = update
+                update
+            } else {
+                val target = if (mode == UpdateMode.FORCED) {
+                    current.followUp ?: InFlightUpdate().also { current.followUp = it }
+                } else {
+                    current
+                }
+                target.observers.add(updateType to updateObserver)
+                null
+            }
         }
+        newUpdate?.let { doUpdateAsync(it) }
     }
 
     /**
@@ -250,46 +632,130 @@ class CertStore internal constructor(private val configuration: CertStoreConfigu
     @WorkerThread
     private fun doUpdate(currentDate: Date): UpdateResult {
         val challenge: String?
+        var conditional = false
         val response = try {
             val request = if (configuration.useChallenge) {
                 challenge = Base64.encodeToString(cryptoProvider.getRandomData(16), Base64.NO_WRAP)
                 RemoteDataRequest(mapOf(REQUEST_CHALLENGE_HEADER to challenge))
             } else {
                 challenge = null
-                RemoteDataRequest(emptyMap())
+                // the response to a challenge is always unique, so only requests without it can be conditional
+                val headers = conditionalRequestHeaders()
+                conditional = headers.isNotEmpty()
+                RemoteDataRequest(headers)
             }
             remoteDataProvider.getFingerprints(request)
         } catch (e: Exception) {
             return UpdateResult.NETWORK_ERROR
         }
+        if (conditional && response.responseCode == HTTP_NOT_MODIFIED) {
+            return processNotModified(currentDate)
+        }
         return processReceivedData(response.data, challenge, response.responseHeaders, currentDate)
     }
 
-    private fun doUpdateAsync(currentDate: Date, updateType: UpdateType, updateObserver: UpdateObserver) {
+    /**
+     * Returns headers making the request conditional on the validators of the stored data.
+     */
+    private fun conditionalRequestHeaders(): Map<String, String> {
+        val data = withStoreLock {
+            restoreCache()
+            cachedData
+        } ?: return emptyMap()
+        if (data.certificates.isEmpty()) {
+            return emptyMap()
+        }
+        val headers = mutableMapOf<String, String>()
+        data.eTag?.let { headers[REQUEST_IF_NONE_MATCH_HEADER] = it }
+        data.lastModified?.let { headers[REQUEST_IF_MODIFIED_SINCE_HEADER] = it }
+        return headers
+    }
+
+    /**
+     * Handles response of the server saying that the fingerprints didn't change.
+     *
+     * The stored fingerprints are kept, only the expired ones are dropped
+     * and the next update is scheduled.
+     */
+    private fun processNotModified(currentDate: Date): UpdateResult {
+        var result = UpdateResult.OK
+        updateCachedData { cachedData ->
+            val certificates = (cachedData?.certificates ?: arrayOf())
+                    .filter { !it.isExpired(currentDate) }
+                    .toTypedArray()
+            if (cachedData == null || certificates.isEmpty()) {
+                WultraDebug.warning("CertStore: Database after update is still empty.")
+                result = UpdateResult.STORE_IS_EMPTY
+                return@updateCachedData null
+            }
+            return@updateCachedData cachedData.copy(
+                    certificates = certificates,
+                    nextUpdate = scheduleNextUpdate(certificates, currentDate))
+        }
+        return result
+    }
+
+    private fun scheduleNextUpdate(certificates: Array<CertificateInfo>, currentDate: Date): Date {
+        val scheduler = UpdateScheduler(
+                periodicUpdateIntervalMillis = configuration.periodicUpdateIntervalMillis,
+                expirationUpdateThresholdMillis = configuration.expirationUpdateThresholdMillis,
+                thresholdMultiplier = 0.125)
+        return scheduler.scheduleNextUpdate(certificates, currentDate)
+    }
+
+    private fun doUpdateAsync(update: InFlightUpdate) {
         val updateRunnable = Runnable {
-            val result = doUpdate(currentDate)
+            val result = try {
+                doUpdate(Date())
+            } catch (e: Exception) {
+                // all coalesced observers must be notified, none of them would get the result otherwise
+                WultraDebug.error("CertStore: Update failed with $e")
+                UpdateResult.INVALID_DATA
+            } finally {
+                // no observer can be attached to the update from now on
+                val followUp = synchronized(updateLock) {
+                    inFlightUpdate = update.followUp
+                    update.followUp
+                }
+                followUp?.let { doUpdateAsync(it) }
+            }
+            notifyUpdateFinished(update.observers, result)
+        }
+        try {
+            executeInBackground(updateRunnable, "SilentCertStoreUpdate")
+        } catch (e: RejectedExecutionException) {
+            WultraDebug.error("CertStore: Update was rejected by the executor: $e")
+            // the update never runs, so the next update must not wait for it
+            val observers = synchronized(updateLock) {
+                inFlightUpdate = null
+                update.observers + (update.followUp?.observers ?: emptyList())
+            }
+            notifyUpdateFinished(observers, UpdateResult.INVALID_DATA)
+        }
+    }
+
+    private fun notifyUpdateFinished(observers: List<Pair<UpdateType, UpdateObserver>>, result: UpdateResult) {
+        observers.forEach { (updateType, updateObserver) ->
             mainThreadHandler.post {
                 updateObserver.onUpdateFinished(updateType, result)
             }
         }
+    }
 
-        configuration.executorService?.submit(updateRunnable) ?: run {
-            // run on a dedicated thread as a fallback
-            val thread = Thread(updateRunnable)
-            thread.name = "SilentCertStoreUpdate"
-            thread.priority = Process.THREAD_PRIORITY_BACKGROUND
-            thread.uncaughtExceptionHandler =
-                    Thread.UncaughtExceptionHandler { t, e ->
-                        WultraDebug.error("Silent update failed, $t crashed with $e.")
-                    }
-            thread.start()
-        }
+    /**
+     * Run the task either on [java.util.concurrent.ExecutorService] provided in the configuration
+     * or on the executor shared by all stores if no [java.util.concurrent.ExecutorService] was defined.
+     *
+     * @param runnable Task to run.
+     * @param taskName Name of the task, used in the name of the shared executor's thread.
+     */
+    private fun executeInBackground(runnable: Runnable, taskName: String) {
+        configuration.executorService?.submit(runnable) ?: BackgroundExecutor.execute(runnable, taskName)
     }
 
     private fun processReceivedData(data: ByteArray, challenge: String?, responseHeaders: Map<String, String>, currentDate: Date): UpdateResult {
 
-        val publicKey = cryptoProvider.importECPublicKey(publicKey = configuration.publicKey)
-                ?: throw IllegalArgumentException("Illegal configuration public key")
+        val publicKey = importedPublicKey
 
         // Validate signature in header
         if (configuration.useChallenge) {
@@ -332,6 +798,50 @@ class CertStore internal constructor(private val configuration: CertStoreConfigu
             return UpdateResult.INVALID_DATA
         }
 
+        // Verify signatures of the new entries in parallel, before the store is locked.
+        // Digests of entries verified before are kept with the data, such entries are not verified again.
+        var verifiedDigests: Set<String> = emptySet()
+        if (!configuration.useChallenge) {
+            val storedData = withStoreLock {
+                restoreCache()
+                cachedData
+            }
+            val storedCertificates = storedData?.certificates ?: arrayOf()
+            val storedDigests = storedData?.verifiedEntries ?: emptySet()
+            val entryDigests = response.fingerprints.associateWith { it.verificationDigest(configuration.publicKey) }
+            val newEntries = response.fingerprints
+                    .filter { entry ->
+                        val info = CertificateInfo(entry)
+                        !info.isExpired(currentDate) && storedCertificates.indexOf(info) == -1
+                    }
+                    .distinctBy { CertificateInfo(it) }
+                    .filter { !storedDigests.contains(entryDigests[it]) }
+            // results are published to this thread by the verifier
+            val results = arrayOfNulls<UpdateResult>(newEntries.size)
+            val failedIndex = ParallelVerifier.shared.firstFailure(newEntries.indices.toList()) { index ->
+                val entryResult = verifyEntrySignature(newEntries[index], publicKey)
+                results[index] = entryResult
+                entryResult == UpdateResult.OK
+            }
+            if (failedIndex != -1) {
+                val entryResult = results[failedIndex]!!
+                logInvalidEntry(newEntries[failedIndex], entryResult)
+                // the next update doesn't have to verify the valid entries again
+                val passedDigests = newEntries
+                        .filterIndexed { index, _ -> results[index] == UpdateResult.OK }
+                        .mapNotNull { entryDigests[it] }
+                if (passedDigests.isNotEmpty()) {
+                    rememberVerifiedEntries(passedDigests)
+                }
+                return entryResult
+            }
+            // digests of entries which are no longer received are dropped
+            verifiedDigests = entryDigests.values
+                    .filterNotNull()
+                    .filterTo(HashSet()) { storedDigests.contains(it) } +
+                    newEntries.mapNotNull { entryDigests[it] }
+        }
+
         var result = UpdateResult.OK
         updateCachedData { cachedData ->
             val newCertificates = (cachedData?.certificates ?: arrayOf())
@@ -350,21 +860,11 @@ class CertStore internal constructor(private val configuration: CertStoreConfigu
                     continue
                 }
 
-                if (!configuration.useChallenge) {
-                    // Validate partial signature
-                    val signedData = entry.dataForSignature()
-                    if (signedData == null) {
-                        // Failed to construct bytes for signature validation. I think this may
-                        // never happen, unless "entry.name" contains some invalid UTF8 chars.
-                        WultraDebug.error("CertStore: Failed to prepare data for signature validation. CN = '${entry.name}'")
-                        result = UpdateResult.INVALID_DATA
-                        break
-                    }
-
-                    if (!cryptoProvider.ecdsaValidateSignature(signedData, publicKey)) {
-                        // detected invalid signature
-                        WultraDebug.error("CertStore: Invalid signature detected. CN = '${entry.name}'")
-                        result = UpdateResult.INVALID_SIGNATURE
+                if (!configuration.useChallenge && !verifiedDigests.contains(entry.verificationDigest(configuration.publicKey))) {
+                    // The stored data changed during the verification, validate partial signature now.
+                    result = verifyEntrySignature(entry, publicKey)
+                    if (result != UpdateResult.OK) {
+                        logInvalidEntry(entry, result)
                         break
                     }
                 }
@@ -393,63 +893,115 @@ class CertStore internal constructor(private val configuration: CertStoreConfigu
             newCertificates.sort()
             val certArray = newCertificates.toTypedArray()
 
-            val scheduler = UpdateScheduler(
-                    periodicUpdateIntervalMillis = configuration.periodicUpdateIntervalMillis,
-                    expirationUpdateThresholdMillis = configuration.expirationUpdateThresholdMillis,
-                    thresholdMultiplier = 0.125)
-            val nextUpdate = scheduler.scheduleNextUpdate(certArray, currentDate)
-            return@updateCachedData CachedData(certificates = certArray, nextUpdate = nextUpdate)
+            val nextUpdate = scheduleNextUpdate(certArray, currentDate)
+            // validators for conditional requests, useless for responses to a challenge
+            val eTag = if (configuration.useChallenge) null else responseHeaders[RESPONSE_ETAG_HEADER]
+            val lastModified = if (configuration.useChallenge) null else responseHeaders[RESPONSE_LAST_MODIFIED_HEADER]
+            val verifiedEntries = if (configuration.useChallenge) null else verifiedDigests
+            return@updateCachedData CachedData(certificates = certArray, nextUpdate = nextUpdate,
+                    eTag = eTag, lastModified = lastModified, verifiedEntries = verifiedEntries)
         }
         return result
     }
 
+    /**
+     * Validates signature of a single fingerprint entry.
+     *
+     * @param entry Entry received from the server.
+     * @param publicKey Public key for the signature validation.
+     * @return [UpdateResult.OK] for a valid signature, otherwise the error of the update.
+     */
+    private fun verifyEntrySignature(entry: GetFingerprintResponse.Entry, publicKey: ECPublicKey): UpdateResult {
+        // Failed to construct bytes for signature validation. I think this may
+        // never happen, unless "entry.name" contains some invalid UTF8 chars.
+        val signedData = entry.dataForSignature() ?: return UpdateResult.INVALID_DATA
+        if (!cryptoProvider.ecdsaValidateSignature(signedData, publicKey)) {
+            // detected invalid signature
+            return UpdateResult.INVALID_SIGNATURE
+        }
+        return UpdateResult.OK
+    }
+
+    private fun logInvalidEntry(entry: GetFingerprintResponse.Entry, result: UpdateResult) {
+        if (result == UpdateResult.INVALID_DATA) {
+            WultraDebug.error("CertStore: Failed to prepare data for signature validation. CN = '${entry.name}'")
+        } else {
+            WultraDebug.error("CertStore: Invalid signature detected. CN = '${entry.name}'")
+        }
+    }
+
     /*** VALIDATION ***/
 
     /**
      * Validates whether provided certificate fingerprint is trusted for given common name.
      *
+     * Results are cached for each common name and fingerprint pair. A cached result is used
+     * until the stored fingerprints change or one of the evaluated fingerprints expires.
+     *
      * @param commonName A common name
      * @param fingerprint A SHA-256 fingerprint calculated from certificate's data
      *
      * @return Validation result
      */
     fun validateFingerprint(commonName: String, fingerprint: ByteArray): ValidationResult {
+        return verifyFingerprint(commonName, fingerprint).result
+    }
+
+    /**
+     * Validates certificate fingerprint like [validateFingerprint] and returns also conditions
+     * under which the result holds.
+     *
+     * @param commonName A common name
+     * @param fingerprint A SHA-256 fingerprint calculated from certificate's data
+     * @param blocking If false, the validation never waits for the store data to load.
+     * [ValidationResult.EMPTY] is returned while the data are being loaded in the background.
+     *
+     * @return Validation verdict
+     */
+    internal fun verifyFingerprint(commonName: String, fingerprint: ByteArray, blocking: Boolean = true): ValidationVerdict {
         val expected = configuration.expectedCommonNames
         if (expected != null && !expected.contains(commonName)) {
-            notifyValidationObservers(commonName, ValidationObserver::onValidationUntrusted)
-            return ValidationResult.UNTRUSTED
+            notifyValidationObservers(commonName, ValidationResult.UNTRUSTED, false)
+            // doesn't depend on the store data, no need to load them
+            return ValidationVerdict(ValidationResult.UNTRUSTED, this.snapshot.generation, Long.MAX_VALUE)
         }
 
-        val certificates = getCertificates()
-        if (certificates.isEmpty()) {
-            notifyValidationObservers(commonName, ValidationObserver::onValidationEmpty)
-            return ValidationResult.EMPTY
+        val snapshot = (if (blocking) getSnapshot() else getSnapshotNonBlocking()) ?: CertificateSnapshot.EMPTY
+        if (snapshot.isEmpty) {
+            notifyValidationObservers(commonName, ValidationResult.EMPTY, expected != null)
+            return ValidationVerdict(ValidationResult.EMPTY, snapshot.generation, Long.MAX_VALUE)
         }
 
+        val pinned = expected != null || snapshot.certificatesFor(commonName).isNotEmpty()
         val now = Date()
-        var matchAttempts = 0
-        // iterate over all entries and check common name and fingerprint
+        val cachedVerdict = resultCache.getVerdict(commonName, fingerprint, snapshot.generation, now.time)
+        if (cachedVerdict != null) {
+            notifyValidationObservers(commonName, cachedVerdict.result, pinned)
+            return cachedVerdict
+        }
+
+        var result = ValidationResult.EMPTY
+        // the result can change when the first of the evaluated certificates expires
+        var validUntil = Long.MAX_VALUE
+        // iterate over entries for the common name and check fingerprint
         // filter out already expired certificates (including the fallback certificate)
-        for (info in certificates) {
+        for (info in snapshot.certificatesFor(commonName)) {
             if (info.isExpired(now)) {
                 continue
             }
-            if (info.commonName == commonName) {
-                if (info.fingerprint.contentEquals(fingerprint)) {
-                    notifyValidationObservers(commonName, ValidationObserver::onValidationTrusted)
-                    return ValidationResult.TRUSTED
-                }
-                matchAttempts += 1
+            if (info.fingerprint.contentEquals(fingerprint)) {
+                result = ValidationResult.TRUSTED
+                validUntil = info.expires.time + 1
+                break
             }
+            result = ValidationResult.UNTRUSTED
+            validUntil = minOf(validUntil, info.expires.time + 1)
         }
 
-        return if (matchAttempts > 0) {
-            notifyValidationObservers(commonName, ValidationObserver::onValidationUntrusted)
-            ValidationResult.UNTRUSTED
-        } else {
-            notifyValidationObservers(commonName, ValidationObserver::onValidationEmpty)
-            ValidationResult.EMPTY
-        }
+        val verdict = ValidationVerdict(result, snapshot.generation, validUntil)
+        resultCache.put(commonName, fingerprint, verdict)
+        notifyValidationObservers(commonName, result, pinned)
+        return verdict
     }
 
     /**
@@ -467,14 +1019,62 @@ class CertStore internal constructor(private val configuration: CertStoreConfigu
     /**
      * Validates whether provided certificate is trusted.
      *
+     * Fingerprints of recently validated certificates are cached by their encoded form,
+     * so repeated validation of the same certificate doesn't compute the hash again,
+     * even when the certificate is decoded again for every handshake.
+     *
      * @param certificate Certificate to test.
      * @return Validation result.
      */
     fun validateCertificate(certificate: X509Certificate): ValidationResult {
-        val key = certificate.encoded
-        val fingerprint = cryptoProvider.hashSha256(key)
-        val commonName = CertUtils.parseCommonName(certificate)
-        return validateFingerprint(commonName, fingerprint)
+        return verifyCertificate(certificate).result
+    }
+
+    /**
+     * Validates certificate like [validateCertificate] and returns also conditions
+     * under which the result holds.
+     *
+     * @param certificate Certificate to test.
+     * @param hostname Name of the host presenting the certificate. If provided, the fingerprints
+     * pinned for the host are used instead of parsing the common name from the certificate.
+     * @param blocking If false, the validation never waits for the store data to load.
+     * See [verifyFingerprint].
+     * @return Validation verdict.
+     */
+    internal fun verifyCertificate(certificate: X509Certificate,
+                                   hostname: String? = null,
+                                   blocking: Boolean = true): ValidationVerdict {
+        val fingerprint = fingerprintCache.fingerprint(certificate.encoded) {
+            cryptoProvider.hashSha256(it)
+        }
+        val commonName = if (hostname != null) {
+            val snapshot = (if (blocking) getSnapshot() else getSnapshotNonBlocking()) ?: CertificateSnapshot.EMPTY
+            snapshot.commonNameForHost(hostname)
+        } else {
+            CertUtils.parseCommonName(certificate)
+        }
+        return verifyFingerprint(commonName, fingerprint, blocking)
+    }
+
+    /**
+     * Check if a certificate presented by the host can ever be trusted.
+     *
+     * The host is expected to be pinned under its own name or a wildcard name covering it.
+     * The check doesn't touch the network and doesn't notify validation observers.
+     *
+     * @param hostname Name of the host.
+     * @return False if the common name for the host is not expected, or if there's
+     * no valid fingerprint pinned for it.
+     */
+    internal fun isHostPinned(hostname: String): Boolean {
+        val snapshot = getSnapshot()
+        val commonName = snapshot.commonNameForHost(hostname)
+        val expected = configuration.expectedCommonNames
+        if (expected != null && !expected.contains(commonName)) {
+            return false
+        }
+        val now = Date()
+        return snapshot.certificatesFor(commonName).any { !it.isExpired(now) }
     }
 
     /*** GLOBAL VALIDATION OBSERVERS ***/
@@ -490,9 +1090,7 @@ class CertStore internal constructor(private val configuration: CertStoreConfigu
      * @since 0.9.0
      */
     fun addValidationObserver(observer: ValidationObserver) {
-        synchronized(validationObservers) {
-            validationObservers.add(observer)
-        }
+        validationObservers.add(observer)
     }
 
     /**
@@ -503,12 +1101,9 @@ class CertStore internal constructor(private val configuration: CertStoreConfigu
      * @since 0.9.0
      */
     fun removeValidationObserver(observer: ValidationObserver) {
-        if (!validationObservers.contains(observer)) {
+        if (!validationObservers.remove(observer)) {
             throw IllegalArgumentException("Cannot remove unknown ValidationObserver")
         }
-        synchronized(validationObservers) {
-            validationObservers.remove(observer)
-        }
     }
 
     /**
@@ -517,29 +1112,24 @@ class CertStore internal constructor(private val configuration: CertStoreConfigu
      * @since 0.9.0
      */
     fun removeAllValidationObservers() {
-        synchronized(validationObservers) {
-            validationObservers.clear()
-        }
+        validationObservers.clear()
     }
 
     /**
-     * Notify all global validation observers with callback about a validation failure.
+     * Count a validation result and notify all global validation observers about it.
      *
-     * The observers are notified on the main thread.
+     * The observers are notified with [CertStoreConfiguration.validationObserverDispatcher].
+     * Nothing is dispatched when there's no observer.
      *
-     * @param commonName Notify that there was a problem with validation of this common name.
-     * @param observerCallback Notify all observers with this validation observer callback.
-     *
-     * @since 0.9.0
+     * @param commonName Validated common name.
+     * @param result Result of the validation.
+     * @param pinned If true, the common name is pinned, see [getValidationStatistics].
      */
-    private fun notifyValidationObservers(commonName: String, observerCallback: ValidationObserver.(String) -> Unit) {
-        synchronized(validationObservers) {
-            validationObservers.forEach { observer ->
-                mainThreadHandler.post {
-                    observer.observerCallback(commonName)
-                }
-                return@forEach
-            }
+    private fun notifyValidationObservers(commonName: String, result: ValidationResult, pinned: Boolean) {
+        validationStatistics.increment(commonName, result, pinned)
+        if (validationObservers.isEmpty()) {
+            return
         }
+        configuration.validationObserverDispatcher.dispatch(mainThreadHandler, validationObservers, commonName, result)
     }
-}
\ No newline at end of file
+}
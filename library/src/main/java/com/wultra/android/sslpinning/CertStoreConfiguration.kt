@@ -42,8 +42,8 @@ class CertStoreConfiguration(
         /**
          * ECC public key which will be used for validating data received from the server.
          * A Base64 string is expected.
-         * If an invalid key is provided, the library will crash with a fatal error on the first
-         * attempt to use the public key.
+         * The key is imported with the crypto provider when [CertStore] is created.
+         * If the key can't be imported, [IllegalArgumentException] is thrown.
          */
         val publicKey: ByteArray,
 
@@ -95,7 +95,8 @@ class CertStoreConfiguration(
 
         /**
          * Executor service on which silent updates will run.
-         * If not set, the silent updates will run on a separate thread.
+         * If not set, the silent updates will run on a small pool of daemon threads shared
+         * by all [CertStore] instances.
          */
         val executorService: ExecutorService? = null,
 
@@ -103,7 +104,25 @@ class CertStoreConfiguration(
          * SSL validation strategy applied to HTTPS requests initiated from this library.
          * If not set, then the default system-provided certificate chain validation will be used.
          */
-        val sslValidationStrategy: SslValidationStrategy? = null) {
+        val sslValidationStrategy: SslValidationStrategy? = null,
+
+        /**
+         * Defines how [ValidationObserver] callbacks are delivered.
+         * If not set, the observers are notified on the main thread.
+         *
+         * @since 1.5.0
+         */
+        val validationObserverDispatcher: ValidationObserverDispatcher = ValidationObserverDispatcher.mainThread(),
+
+        /**
+         * Defines whether connections to [serviceUrl] are kept alive and reused by the following updates.
+         * If false, the connection is closed after each update.
+         *
+         * The default value is true.
+         *
+         * @since 1.5.0
+         */
+        val keepAliveConnections: Boolean = true) {
 
     private constructor(builder: Builder) : this(serviceUrl = builder.serviceUrl,
             publicKey = builder.publicKey,
@@ -114,7 +133,9 @@ class CertStoreConfiguration(
             periodicUpdateIntervalMillis = builder.periodicUpdateIntervalMillis,
             expirationUpdateThresholdMillis = builder.expirationUpdateThresholdMillis,
             executorService = builder.executorService,
-            sslValidationStrategy = builder.sslValidationStrategy)
+            sslValidationStrategy = builder.sslValidationStrategy,
+            validationObserverDispatcher = builder.validationObserverDispatcher,
+            keepAliveConnections = builder.keepAliveConnections)
 
     /**
      * Validate that the configuration doesn't contain any errors.
@@ -144,8 +165,6 @@ class CertStoreConfiguration(
 
         }
 
-        // TODO improve with validation of public key
-
         if (periodicUpdateIntervalMillis < 0) {
             throw IllegalArgumentException("CertStoreConfiguration: 'periodicUpdateIntervalMillis' contains negative value.")
         }
@@ -194,6 +213,12 @@ class CertStoreConfiguration(
         var sslValidationStrategy: SslValidationStrategy? = null
             private set
 
+        var validationObserverDispatcher: ValidationObserverDispatcher = ValidationObserverDispatcher.mainThread()
+            private set
+
+        var keepAliveConnections: Boolean = true
+            private set
+
         /**
          * Set use challenge flag.
          *
@@ -266,6 +291,21 @@ class CertStoreConfiguration(
             this.sslValidationStrategy = sslValidationStrategy
         }
 
+        /**
+         * Changes how [ValidationObserver] callbacks are delivered.
+         * See [ValidationObserverDispatcher] for available options.
+         */
+        fun validationObserverDispatcher(validationObserverDispatcher: ValidationObserverDispatcher) = apply {
+            this.validationObserverDispatcher = validationObserverDispatcher
+        }
+
+        /**
+         * Set whether connections to the update server are kept alive between updates.
+         */
+        fun keepAliveConnections(keepAliveConnections: Boolean) = apply {
+            this.keepAliveConnections = keepAliveConnections
+        }
+
         /**
          * Builds [CertStoreConfiguration].
          */
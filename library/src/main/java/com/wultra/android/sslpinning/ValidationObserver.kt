@@ -22,7 +22,10 @@ import androidx.annotation.MainThread
  * Observer for validation failures.
  *
  * When registered receives all validation failures happening on the given [CertStore].
- * Callbacks are executed on the main thread.
+ * Callbacks are executed on the main thread. How often they are delivered is defined by
+ * [CertStoreConfiguration.validationObserverDispatcher]. The only exception is the opt-in
+ * [ValidationObserverDispatcher.executor] dispatcher, which overrides the [MainThread] guarantee
+ * and calls the observer on the provided executor instead.
  *
  * @author Tomas Kypta, tomas.kypta@wultra.com
  *
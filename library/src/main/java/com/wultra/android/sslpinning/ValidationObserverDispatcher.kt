@@ -0,0 +1,197 @@
+/*
+ * Copyright 2026 Wultra s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package com.wultra.android.sslpinning
+
+import android.os.Handler
+import java.util.Collections
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.ConcurrentLinkedQueue
+import java.util.concurrent.Executor
+import java.util.concurrent.atomic.AtomicBoolean
+
+/**
+ * Defines how [ValidationObserver] callbacks are delivered.
+ *
+ * The default [mainThread] dispatcher delivers every validation result on the main thread.
+ * Apps validating many connections at once can deliver the callbacks on their own
+ * [executor], or use the [batched] dispatcher that delivers repeated results just once per interval.
+ *
+ * @since 1.5.0
+ */
+abstract class ValidationObserverDispatcher {
+
+    companion object {
+        /**
+         * Deliver every validation result on the main thread.
+         *
+         * All observers are notified from a single main thread message per validation.
+         */
+        @JvmStatic
+        fun mainThread(): ValidationObserverDispatcher = MainThreadValidationObserverDispatcher()
+
+        /**
+         * Deliver every validation result on the provided executor.
+         *
+         * This dispatcher is opt-in and overrides the [androidx.annotation.MainThread] guarantee
+         * of [ValidationObserver]. The observers are called outside of the main thread,
+         * so they have to be thread-safe.
+         *
+         * @param executor Executor on which the observers are notified.
+         */
+        @JvmStatic
+        fun executor(executor: Executor): ValidationObserverDispatcher = ExecutorValidationObserverDispatcher(executor)
+
+        /**
+         * Collect validation results and deliver them on the main thread once per interval.
+         *
+         * The same result for the same common name is delivered only once per interval,
+         * no matter how many times it occurred. The order of the first occurrences is preserved.
+         *
+         * @param intervalMillis Interval in milliseconds for collecting the results.
+         */
+        @JvmStatic
+        fun batched(intervalMillis: Long): ValidationObserverDispatcher {
+            if (intervalMillis < 0) {
+                throw IllegalArgumentException("ValidationObserverDispatcher: 'intervalMillis' contains negative value.")
+            }
+            return BatchedValidationObserverDispatcher(intervalMillis)
+        }
+    }
+
+    /**
+     * Deliver a validation result to the observers.
+     *
+     * @param handler Handler of the main thread.
+     * @param observers Observers to notify. The set is iterated when the result is delivered.
+     * @param commonName Validated common name.
+     * @param result Result of the validation.
+     */
+    internal abstract fun dispatch(handler: Handler,
+                                   observers: Set<ValidationObserver>,
+                                   commonName: String,
+                                   result: ValidationResult)
+}
+
+/**
+ * Notify the observers about a validation result.
+ */
+internal fun Set<ValidationObserver>.notify(commonName: String, result: ValidationResult) {
+    forEach { observer ->
+        when (result) {
+            ValidationResult.TRUSTED -> observer.onValidationTrusted(commonName)
+            ValidationResult.UNTRUSTED -> observer.onValidationUntrusted(commonName)
+            ValidationResult.EMPTY -> observer.onValidationEmpty(commonName)
+        }
+    }
+}
+
+/**
+ * Delivers results on the main thread. See [ValidationObserverDispatcher.mainThread].
+ */
+internal class MainThreadValidationObserverDispatcher : ValidationObserverDispatcher() {
+    override fun dispatch(handler: Handler,
+                          observers: Set<ValidationObserver>,
+                          commonName: String,
+                          result: ValidationResult) {
+        handler.post {
+            observers.notify(commonName, result)
+        }
+    }
+}
+
+/**
+ * Delivers results on an executor. See [ValidationObserverDispatcher.executor].
+ */
+internal class ExecutorValidationObserverDispatcher(private val executor: Executor) : ValidationObserverDispatcher() {
+    override fun dispatch(handler: Handler,
+                          observers: Set<ValidationObserver>,
+                          commonName: String,
+                          result: ValidationResult) {
+        executor.execute {
+            observers.notify(commonName, result)
+        }
+    }
+}
+
+/**
+ * Collects results and delivers them on the main thread once per interval.
+ * See [ValidationObserverDispatcher.batched].
+ */
+internal class BatchedValidationObserverDispatcher(private val intervalMillis: Long) : ValidationObserverDispatcher() {
+
+    /**
+     * Result waiting for delivery. Observer sets are compared by identity,
+     * so the dispatcher can be shared by more stores.
+     */
+    private class PendingResult(val observers: Set<ValidationObserver>,
+                                val commonName: String,
+                                val result: ValidationResult) {
+
+        override fun equals(other: Any?): Boolean {
+            return other is PendingResult
+                    && other.observers === observers
+                    && other.commonName == commonName
+                    && other.result == result
+        }
+
+        override fun hashCode(): Int {
+            return (System.identityHashCode(observers) * 31 + commonName.hashCode()) * 31 + result.hashCode()
+        }
+    }
+
+    /**
+     * Results collected in the current interval, used to drop repeated results.
+     */
+    private val pending: MutableSet<PendingResult> = Collections.newSetFromMap(ConcurrentHashMap())
+
+    /**
+     * Results waiting for delivery in the order of their first occurrence.
+     */
+    private val queue = ConcurrentLinkedQueue<PendingResult>()
+
+    /**
+     * Whether [flush] is already posted to the handler.
+     */
+    private val flushScheduled = AtomicBoolean(false)
+
+    override fun dispatch(handler: Handler,
+                          observers: Set<ValidationObserver>,
+                          commonName: String,
+                          result: ValidationResult) {
+        val item = PendingResult(observers, commonName, result)
+        if (pending.add(item)) {
+            queue.offer(item)
+        }
+        if (flushScheduled.compareAndSet(false, true)) {
+            handler.postDelayed({ flush() }, intervalMillis)
+        }
+    }
+
+    /**
+     * Deliver all collected results.
+     *
+     * Results arriving while the flush runs schedule the next flush.
+     */
+    private fun flush() {
+        flushScheduled.set(false)
+        repeat(queue.size) {
+            val item = queue.poll() ?: return
+            pending.remove(item)
+            item.observers.notify(item.commonName, item.result)
+        }
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright 2026 Wultra s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package com.wultra.android.sslpinning
+
+import java.util.concurrent.ConcurrentHashMap
+
+/**
+ * Bounded cache of validation results keyed by common name and fingerprint.
+ *
+ * Each result is tagged with the generation of the store data it was computed from
+ * and with the time until it stays valid. A result is returned only for the same generation
+ * and before it expires, so the cache invalidates itself when fingerprints change or expire.
+ *
+ * @param capacity Maximum number of cached results. The cache is cleared when the capacity is reached.
+ */
+internal class ValidationResultCache(private val capacity: Int = DEFAULT_CAPACITY) {
+
+    companion object {
+        const val DEFAULT_CAPACITY = 256
+    }
+
+    private class Key(val commonName: String, val fingerprint: ByteArray) {
+        private val hash = 31 * commonName.hashCode() + fingerprint.contentHashCode()
+
+        override fun equals(other: Any?): Boolean {
+            if (this === other) return true
+            if (javaClass != other?.javaClass) return false
+            other as Key
+            return hash == other.hash && commonName == other.commonName && fingerprint.contentEquals(other.fingerprint)
+        }
+
+        override fun hashCode(): Int = hash
+    }
+
+    private val entries = ConcurrentHashMap<Key, ValidationVerdict>()
+
+    /**
+     * Returns cached verdict or null if there's no valid verdict.
+     *
+     * @param commonName Validated common name.
+     * @param fingerprint Validated fingerprint.
+     * @param generation Current generation of the store data.
+     * @param now Current time in milliseconds.
+     */
+    fun getVerdict(commonName: String, fingerprint: ByteArray, generation: Long, now: Long): ValidationVerdict? {
+        val verdict = entries[Key(commonName, fingerprint)] ?: return null
+        return if (verdict.isValid(generation, now)) verdict else null
+    }
+
+    /**
+     * Stores the verdict of a validation.
+     *
+     * @param commonName Validated common name.
+     * @param fingerprint Validated fingerprint.
+     * @param verdict Verdict of the validation.
+     */
+    fun put(commonName: String, fingerprint: ByteArray, verdict: ValidationVerdict) {
+        if (entries.size >= capacity) {
+            entries.clear()
+        }
+        // copy the fingerprint, the caller may modify its array
+        entries[Key(commonName, fingerprint.copyOf())] = verdict
+    }
+}
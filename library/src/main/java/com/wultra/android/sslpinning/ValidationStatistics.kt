@@ -0,0 +1,45 @@
+/*
+ * Copyright 2026 Wultra s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package com.wultra.android.sslpinning
+
+/**
+ * Number of validations for a common name grouped by the result.
+ *
+ * @property trusted Number of [ValidationResult.TRUSTED] validations.
+ * @property untrusted Number of [ValidationResult.UNTRUSTED] validations.
+ * @property empty Number of [ValidationResult.EMPTY] validations.
+ *
+ * @since 1.5.0
+ */
+data class ValidationStatistics(val trusted: Long,
+                                val untrusted: Long,
+                                val empty: Long) {
+
+    companion object {
+        /**
+         * Key of validations of common names that are not pinned. They're counted together,
+         * since any server can present a certificate with an arbitrary common name.
+         */
+        const val OTHER_COMMON_NAMES = "*"
+    }
+
+    /**
+     * Total number of validations.
+     */
+    val total: Long
+        get() = trusted + untrusted + empty
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright 2026 Wultra s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package com.wultra.android.sslpinning
+
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.atomic.AtomicLongArray
+
+/**
+ * Lock-free counters of validation results per common name.
+ *
+ * Each common name has its own cell with a counter per [ValidationResult], so concurrent
+ * validations of different common names never touch the same counter.
+ *
+ * Only pinned common names get their own cell, so the number of cells is bounded
+ * by the configuration and the signed fingerprint data. Common names of other servers
+ * come from arbitrary certificates and are counted together under
+ * [ValidationStatistics.OTHER_COMMON_NAMES].
+ */
+internal class ValidationStatisticsCounter {
+
+    private val cells = ConcurrentHashMap<String, AtomicLongArray>()
+
+    private val otherCell = AtomicLongArray(ValidationResult.values().size)
+
+    /**
+     * Count a validation result.
+     *
+     * @param commonName Validated common name.
+     * @param result Result of the validation.
+     * @param pinned If true, the common name is pinned and counted separately.
+     */
+    fun increment(commonName: String, result: ValidationResult, pinned: Boolean) {
+        val cell = if (pinned) cells[commonName] ?: newCell(commonName) else otherCell
+        cell.incrementAndGet(result.ordinal)
+    }
+
+    private fun newCell(commonName: String): AtomicLongArray {
+        val cell = AtomicLongArray(ValidationResult.values().size)
+        return cells.putIfAbsent(commonName, cell) ?: cell
+    }
+
+    /**
+     * Returns counts for all validated common names.
+     *
+     * Every counter is read (and reset) atomically, but the returned values are not a consistent
+     * point-in-time view of all counters. No validation is lost or counted twice when resetting.
+     *
+     * @param reset If true, counters are set to zero.
+     * @return Statistics for common names with at least one validation.
+     */
+    fun snapshot(reset: Boolean): Map<String, ValidationStatistics> {
+        val result = HashMap<String, ValidationStatistics>()
+        for ((commonName, cell) in cells) {
+            cell.snapshot(reset)?.let { result[commonName] = it }
+        }
+        otherCell.snapshot(reset)?.let { result[ValidationStatistics.OTHER_COMMON_NAMES] = it }
+        return result
+    }
+
+    private fun AtomicLongArray.snapshot(reset: Boolean): ValidationStatistics? {
+        val statistics = ValidationStatistics(
+                trusted = read(ValidationResult.TRUSTED, reset),
+                untrusted = read(ValidationResult.UNTRUSTED, reset),
+                empty = read(ValidationResult.EMPTY, reset))
+        return if (statistics.total > 0) statistics else null
+    }
+
+    private fun AtomicLongArray.read(result: ValidationResult, reset: Boolean): Long {
+        return if (reset) getAndSet(result.ordinal, 0) else get(result.ordinal)
+    }
+}
@@ -0,0 +1,36 @@
+/*
+ * Copyright 2026 Wultra s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package com.wultra.android.sslpinning
+
+/**
+ * Result of a validation together with the conditions under which it holds.
+ *
+ * @property result Result of the validation.
+ * @property generation Generation of the store data the result was computed from.
+ * @property validUntil Time in milliseconds when the result is no longer valid.
+ */
+internal class ValidationVerdict(val result: ValidationResult,
+                                 val generation: Long,
+                                 val validUntil: Long) {
+
+    /**
+     * Check if the verdict still holds for the given generation of the store data and time.
+     */
+    fun isValid(generation: Long, now: Long): Boolean {
+        return this.generation == generation && now < validUntil
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright 2026 Wultra s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package com.wultra.android.sslpinning.integration
+
+import android.os.Build
+import androidx.annotation.RequiresApi
+import java.net.Socket
+import java.security.cert.X509Certificate
+import javax.net.ssl.SSLEngine
+import javax.net.ssl.X509ExtendedTrustManager
+import javax.net.ssl.X509TrustManager
+
+/**
+ * Trust manager that chains WultraSSLPinning with the standard certificate validation
+ * and passes the TLS handshake to both of them.
+ *
+ * It behaves the same way as [CompositeX509TrustManager], but lets [SSLPinningX509ExtendedTrustManager]
+ * access the handshake session.
+ *
+ * @since 1.5.0
+ */
+@RequiresApi(Build.VERSION_CODES.N)
+@Suppress("CustomX509TrustManager")
+class CompositeX509ExtendedTrustManager internal constructor(
+        private val pinningTrustManager: X509ExtendedTrustManager,
+        private val platformTrustManager: X509TrustManager,
+        private val order: CompositeX509TrustManager.Order,
+        private val failFast: Boolean) : X509ExtendedTrustManager() {
+
+    /**
+     * Creates trust manager chaining WultraSSLPinning with the default trust manager of the platform.
+     *
+     * @param pinningTrustManager Trust manager capable of handling WultraSSLPinning.
+     * @param order Order of the validations.
+     * @param failFast If true, the second validation is skipped when the first one fails.
+     * If false, both validations always run and the first failure is reported.
+     */
+    @JvmOverloads
+    constructor(pinningTrustManager: SSLPinningX509ExtendedTrustManager,
+                order: CompositeX509TrustManager.Order = CompositeX509TrustManager.Order.PINNING_FIRST,
+                failFast: Boolean = true) :
+            this(pinningTrustManager, SSLPinningIntegration.platformX509TrustManager, order, failFast)
+
+    private val extendedPlatformTrustManager = platformTrustManager as? X509ExtendedTrustManager
+
+    override fun checkClientTrusted(chain: Array<out X509Certificate>, authType: String) {
+        platformTrustManager.checkClientTrusted(chain, authType)
+    }
+
+    override fun checkClientTrusted(chain: Array<out X509Certificate>, authType: String, socket: Socket?) {
+        val platform = extendedPlatformTrustManager
+        if (platform != null) {
+            platform.checkClientTrusted(chain, authType, socket)
+        } else {
+            platformTrustManager.checkClientTrusted(chain, authType)
+        }
+    }
+
+    override fun checkClientTrusted(chain: Array<out X509Certificate>, authType: String, engine: SSLEngine?) {
+        val platform = extendedPlatformTrustManager
+        if (platform != null) {
+            platform.checkClientTrusted(chain, authType, engine)
+        } else {
+            platformTrustManager.checkClientTrusted(chain, authType)
+        }
+    }
+
+    override fun checkServerTrusted(chain: Array<out X509Certificate>, authType: String) {
+        checkServerTrustedChained(order, failFast,
+                { pinningTrustManager.checkServerTrusted(chain, authType) },
+                { platformTrustManager.checkServerTrusted(chain, authType) })
+    }
+
+    override fun checkServerTrusted(chain: Array<out X509Certificate>, authType: String, socket: Socket?) {
+        checkServerTrustedChained(order, failFast,
+                { pinningTrustManager.checkServerTrusted(chain, authType, socket) },
+                { checkPlatformServerTrusted(chain, authType, socket, null) })
+    }
+
+    override fun checkServerTrusted(chain: Array<out X509Certificate>, authType: String, engine: SSLEngine?) {
+        checkServerTrustedChained(order, failFast,
+                { pinningTrustManager.checkServerTrusted(chain, authType, engine) },
+                { checkPlatformServerTrusted(chain, authType, null, engine) })
+    }
+
+    override fun getAcceptedIssuers(): Array<X509Certificate> {
+        return platformTrustManager.acceptedIssuers
+    }
+
+    /**
+     * Validate the server certificate chain with the platform trust manager,
+     * passing the handshake if the trust manager supports it.
+     */
+    private fun checkPlatformServerTrusted(chain: Array<out X509Certificate>,
+                                           authType: String,
+                                           socket: Socket?,
+                                           engine: SSLEngine?) {
+        val platform = extendedPlatformTrustManager
+        when {
+            platform == null -> platformTrustManager.checkServerTrusted(chain, authType)
+            engine != null -> platform.checkServerTrusted(chain, authType, engine)
+            else -> platform.checkServerTrusted(chain, authType, socket)
+        }
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright 2026 Wultra s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package com.wultra.android.sslpinning.integration
+
+import java.security.cert.CertificateException
+import java.security.cert.X509Certificate
+import javax.net.ssl.X509TrustManager
+
+/**
+ * Trust manager that chains WultraSSLPinning with the standard certificate validation.
+ *
+ * A server certificate chain is trusted only when both the pinning and the platform trust manager
+ * trust it. By default, the cheap pinning check runs first and an untrusted chain is rejected
+ * without building and checking the certification path.
+ *
+ * Note that [javax.net.ssl.SSLContext] uses only the first [X509TrustManager] it's initialized with,
+ * so the trust managers have to be chained in a single instance like this one.
+ *
+ * @since 1.5.0
+ */
+@Suppress("CustomX509TrustManager")
+class CompositeX509TrustManager internal constructor(
+        private val pinningTrustManager: X509TrustManager,
+        private val platformTrustManager: X509TrustManager,
+        private val order: Order,
+        private val failFast: Boolean) : X509TrustManager {
+
+    /**
+     * Order in which the trust managers validate the server certificate chain.
+     */
+    enum class Order {
+        /**
+         * Validate pinning first, then the standard certificate validation.
+         */
+        PINNING_FIRST,
+        /**
+         * Validate the standard certificate validation first, then pinning.
+         */
+        PLATFORM_FIRST
+    }
+
+    /**
+     * Creates trust manager chaining WultraSSLPinning with the default trust manager of the platform.
+     *
+     * @param pinningTrustManager Trust manager capable of handling WultraSSLPinning.
+     * @param order Order of the validations.
+     * @param failFast If true, the second validation is skipped when the first one fails.
+     * If false, both validations always run and the first failure is reported.
+     */
+    @JvmOverloads
+    constructor(pinningTrustManager: SSLPinningX509TrustManager,
+                order: Order = Order.PINNING_FIRST,
+                failFast: Boolean = true) :
+            this(pinningTrustManager, SSLPinningIntegration.platformX509TrustManager, order, failFast)
+
+    override fun checkClientTrusted(chain: Array<out X509Certificate>, authType: String) {
+        platformTrustManager.checkClientTrusted(chain, authType)
+    }
+
+    override fun checkServerTrusted(chain: Array<out X509Certificate>, authType: String) {
+        checkServerTrustedChained(order, failFast,
+                { pinningTrustManager.checkServerTrusted(chain, authType) },
+                { platformTrustManager.checkServerTrusted(chain, authType) })
+    }
+
+    override fun getAcceptedIssuers(): Array<X509Certificate> {
+        return platformTrustManager.acceptedIssuers
+    }
+}
+
+/**
+ * Run the pinning and the platform validation in the given order.
+ *
+ * @param order Order of the validations.
+ * @param failFast If true, the second validation is skipped when the first one fails.
+ * @param pinning Pinning validation.
+ * @param platform Platform validation.
+ * @throws CertificateException The first failure of the validations.
+ */
+internal fun checkServerTrustedChained(order: CompositeX509TrustManager.Order,
+                                       failFast: Boolean,
+                                       pinning: () -> Unit,
+                                       platform: () -> Unit) {
+    val first: () -> Unit
+    val second: () -> Unit
+    when (order) {
+        CompositeX509TrustManager.Order.PINNING_FIRST -> {
+            first = pinning
+            second = platform
+        }
+        CompositeX509TrustManager.Order.PLATFORM_FIRST -> {
+            first = platform
+            second = pinning
+        }
+    }
+    if (failFast) {
+        first()
+        second()
+        return
+    }
+    val failure = try {
+        first()
+        null
+    } catch (e: CertificateException) {
+        e
+    }
+    try {
+        second()
+    } catch (e: CertificateException) {
+        if (failure == null) {
+            throw e
+        }
+        failure.addSuppressed(e)
+    }
+    if (failure != null) {
+        throw failure
+    }
+}
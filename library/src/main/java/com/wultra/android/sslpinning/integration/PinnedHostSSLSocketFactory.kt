@@ -0,0 +1,119 @@
+/*
+ * Copyright 2026 Wultra s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package com.wultra.android.sslpinning.integration
+
+import com.wultra.android.sslpinning.CertStore
+import java.net.InetAddress
+import java.net.Socket
+import javax.net.ssl.SSLHandshakeException
+import javax.net.ssl.SSLSocketFactory
+
+/**
+ * Socket factory that checks the target host against the pinned fingerprints before the TLS handshake.
+ *
+ * If a certificate of the host can never be trusted, because its name is not in
+ * [com.wultra.android.sslpinning.CertStoreConfiguration.expectedCommonNames] or there's no valid
+ * fingerprint pinned for it, the connection is handled by the [policy] without
+ * starting the TLS handshake.
+ *
+ * Sockets created for a host name are rejected before connecting. Sockets layered over an existing
+ * connection are rejected before sending any TLS data, and the existing socket is closed
+ * when `autoClose` is set.
+ *
+ * The host must be pinned under its own name, or under a wildcard name covering it
+ * (e.g. `*.example.com` for `api.example.com`). Don't use this factory for hosts whose certificate
+ * has a common name different from the host name.
+ *
+ * Sockets created for an [InetAddress] are not checked, since they have no host name.
+ *
+ * @param certStore CertStore to base the SSL pinning on.
+ * @param delegate Socket factory with SSL pinning that creates sockets for pinned hosts.
+ * @param policy What to do with hosts that are not pinned.
+ * @param bypassFactory Socket factory for hosts that are not pinned, used with [Policy.BYPASS].
+ *
+ * @since 1.5.0
+ */
+class PinnedHostSSLSocketFactory @JvmOverloads constructor(
+        private val certStore: CertStore,
+        private val delegate: SSLSocketFactory = SSLPinningIntegration.getSSLPinningSocketFactory(certStore),
+        private val policy: Policy = Policy.REJECT,
+        private val bypassFactory: SSLSocketFactory = SSLSocketFactory.getDefault() as SSLSocketFactory) : SSLSocketFactory() {
+
+    /**
+     * Handling of hosts that are not pinned.
+     */
+    enum class Policy {
+        /**
+         * Fail with [SSLHandshakeException] before the TLS handshake.
+         */
+        REJECT,
+        /**
+         * Connect with the bypass socket factory, without SSL pinning.
+         */
+        BYPASS
+    }
+
+    override fun getDefaultCipherSuites(): Array<String> = delegate.defaultCipherSuites
+
+    override fun getSupportedCipherSuites(): Array<String> = delegate.supportedCipherSuites
+
+    override fun createSocket(): Socket = delegate.createSocket()
+
+    override fun createSocket(s: Socket?, host: String?, port: Int, autoClose: Boolean): Socket {
+        val factory = try {
+            factoryFor(host)
+        } catch (e: SSLHandshakeException) {
+            // the layered socket would own the connection, so it has to be released here
+            if (autoClose) {
+                s?.close()
+            }
+            throw e
+        }
+        return factory.createSocket(s, host, port, autoClose)
+    }
+
+    override fun createSocket(host: String?, port: Int): Socket {
+        return factoryFor(host).createSocket(host, port)
+    }
+
+    override fun createSocket(host: String?, port: Int, localHost: InetAddress?, localPort: Int): Socket {
+        return factoryFor(host).createSocket(host, port, localHost, localPort)
+    }
+
+    override fun createSocket(host: InetAddress?, port: Int): Socket {
+        return delegate.createSocket(host, port)
+    }
+
+    override fun createSocket(address: InetAddress?, port: Int, localAddress: InetAddress?, localPort: Int): Socket {
+        return delegate.createSocket(address, port, localAddress, localPort)
+    }
+
+    /**
+     * Returns the socket factory for the host.
+     *
+     * @throws SSLHandshakeException If the host is not pinned and the policy is [Policy.REJECT].
+     */
+    private fun factoryFor(host: String?): SSLSocketFactory {
+        if (host == null || certStore.isHostPinned(host)) {
+            return delegate
+        }
+        return when (policy) {
+            Policy.REJECT -> throw SSLHandshakeException("WultraSSLpinning doesn't trust the host '$host'")
+            Policy.BYPASS -> bypassFactory
+        }
+    }
+}
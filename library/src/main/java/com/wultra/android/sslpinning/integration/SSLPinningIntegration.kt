@@ -16,8 +16,10 @@
 
 package com.wultra.android.sslpinning.integration
 
+import android.annotation.SuppressLint
 import android.os.Build
 import android.util.Log
+import androidx.annotation.RequiresApi
 import com.wultra.android.sslpinning.CertStore
 import java.lang.Exception
 import java.net.InetAddress
@@ -26,9 +28,12 @@ import java.security.KeyManagementException
 import java.security.KeyStore
 import java.security.NoSuchAlgorithmException
 import javax.net.ssl.SSLContext
+import javax.net.ssl.SSLEngine
 import javax.net.ssl.SSLSocket
 import javax.net.ssl.SSLSocketFactory
+import javax.net.ssl.TrustManager
 import javax.net.ssl.TrustManagerFactory
+import javax.net.ssl.X509TrustManager
 
 /**
  * Integration class for creating [SSLSocketFactory] for handling WultraSSLPinning.
@@ -39,11 +44,55 @@ class SSLPinningIntegration {
 
     companion object {
 
+        /**
+         * Default trust managers of the platform.
+         *
+         * Initializing the trust managers loads the system CA keystore, so they're created
+         * just once and shared by all socket factories in the process.
+         */
+        internal val platformTrustManagers: Array<TrustManager> by lazy {
+            val originalTrustManagerFactory = TrustManagerFactory.getInstance("X509")
+            val keyStore: KeyStore? = null
+            originalTrustManagerFactory.init(keyStore)
+            originalTrustManagerFactory.trustManagers
+        }
+
+        /**
+         * Default X.509 trust manager of the platform.
+         */
+        internal val platformX509TrustManager: X509TrustManager by lazy {
+            platformTrustManagers.filterIsInstance<X509TrustManager>().firstOrNull()
+                    ?: throw IllegalStateException("No X509TrustManager provided by the platform")
+        }
+
+        /**
+         * Returns [SSLSocketFactory] for handling WultraSSLPinning shared by all users of the [CertStore].
+         *
+         * The factory is created on the first call and then reused, so the underlying
+         * [SSLContext] and its TLS session cache are shared and sessions can be resumed.
+         * The factory behaves the same way as the one from [createSSLPinningSocketFactory].
+         *
+         * @param certStore CertStore to base the SSL pinning on.
+         * @return SSLSocketFactory capable of handling WultraSSLPinning.
+         *
+         * @since 1.5.0
+         */
+        @JvmStatic
+        fun getSSLPinningSocketFactory(certStore: CertStore): SSLSocketFactory {
+            return certStore.sslPinningSocketFactory
+        }
+
         /**
          * Creates [SSLSocketFactory] for handling WultraSSLPinning.
          * The factory first tests SSL Pinning then if that is ok fallbacks on standard
          * certificate validation.
          *
+         * Every call creates a new [SSLContext]. Prefer [getSSLPinningSocketFactory]
+         * to reuse the context.
+         *
+         * On Android N and newer, the standard validation has access to the TLS handshake,
+         * so it respects the domain specific configurations of the app's network security config.
+         *
          * @param certStore CertStore to base the SSL pinning on.
          * @return SSLSocketFactory capable of handling WultraSSLPinning.
          */
@@ -57,6 +106,9 @@ class SSLPinningIntegration {
          * The factory first tests SSL Pinning then if that is ok fallbacks on standard
          * certificate validation.
          *
+         * On Android N and newer, the standard validation has access to the TLS handshake,
+         * so it respects the domain specific configurations of the app's network security config.
+         *
          * Note: On devices prior to Android API 21, you'll probably need to use ProviderInstaller.installIfNeeded method
          * to ensure, that the device is capable of TLS 1.2 handling.
          *
@@ -66,28 +118,131 @@ class SSLPinningIntegration {
          */
         @JvmStatic
         fun createSSLPinningSocketFactory(sslPinningTrustManager: SSLPinningX509TrustManager): SSLSocketFactory {
-            // obtain default trust managers
-            val originalTrustManagerFactory = TrustManagerFactory.getInstance("X509")
-            val keyStore: KeyStore? = null
-            originalTrustManagerFactory.init(keyStore)
-            val originalTrustManagers = originalTrustManagerFactory.trustManagers
+            return createSocketFactory(createCompositeTrustManager(sslPinningTrustManager))
+        }
 
-            // use all trust managers after the provided (or our [SSLPinningX509TrustManager])
-            val trustSslPinningCerts = arrayOf(sslPinningTrustManager, *originalTrustManagers)
-            try {
-                if (Build.VERSION.SDK_INT < Build.VERSION_CODES.LOLLIPOP) {
-                    try {
-                        val sc = SSLContext.getInstance(Tls12SocketFactory.TLS12NAME)
-                        sc.init(null, trustSslPinningCerts, null)
-                        return Tls12SocketFactory(sc.socketFactory)
-                    } catch (e: Exception) {
-                        Log.e("TLS12Factory", e.message ?: "")
-                    }
+        /**
+         * Creates [SSLSocketFactory] for handling WultraSSLPinning with a custom order
+         * of the pinning and the standard certificate validation.
+         *
+         * The standard validation doesn't know the server host name, so on Android N and newer
+         * it fails when the app's network security config has domain specific configurations.
+         * Use the [CompositeX509ExtendedTrustManager] variant on these systems.
+         *
+         * @param compositeTrustManager Trust manager chaining WultraSSLPinning with the standard
+         * certificate validation.
+         * @return SSLSocketFactory capable of handling WultraSSLPinning.
+         *
+         * @since 1.5.0
+         */
+        @JvmStatic
+        fun createSSLPinningSocketFactory(compositeTrustManager: CompositeX509TrustManager): SSLSocketFactory {
+            return createSocketFactory(compositeTrustManager)
+        }
+
+        /**
+         * Creates [SSLSocketFactory] for handling WultraSSLPinning with access to the TLS handshake.
+         *
+         * @param compositeTrustManager Trust manager chaining WultraSSLPinning with the standard
+         * certificate validation.
+         * @return SSLSocketFactory capable of handling WultraSSLPinning.
+         *
+         * @since 1.5.0
+         */
+        @JvmStatic
+        @RequiresApi(Build.VERSION_CODES.N)
+        fun createSSLPinningSocketFactory(compositeTrustManager: CompositeX509ExtendedTrustManager): SSLSocketFactory {
+            return createSocketFactory(compositeTrustManager)
+        }
+
+        /**
+         * Creates [SSLContext] for handling WultraSSLPinning.
+         *
+         * Use the context for clients based on [SSLEngine]. Like the socket factories, the context
+         * first tests SSL pinning and then the standard certificate validation.
+         *
+         * By default, the pinning validation waits for the [CertStore] to load its data,
+         * the same way as the socket factories. In the non-blocking mode, the validation never
+         * waits, so it's safe to run on event loop threads. Server certificates are rejected
+         * until the data are loaded in the background. Call [CertStore.preload] early to avoid
+         * such failures.
+         *
+         * @param certStore CertStore to base the SSL pinning on.
+         * @param nonBlocking If true, the pinning validation doesn't block. The default value is false.
+         * @return SSLContext capable of handling WultraSSLPinning.
+         *
+         * @since 1.5.0
+         */
+        @JvmStatic
+        @JvmOverloads
+        fun createSSLPinningContext(certStore: CertStore, nonBlocking: Boolean = false): SSLContext {
+            return createContext(createCompositeTrustManager(SSLPinningX509TrustManager(certStore, nonBlocking)))
+        }
+
+        /**
+         * Creates client [SSLEngine] for handling WultraSSLPinning with non-blocking validation.
+         *
+         * All engines for the [CertStore] share one [SSLContext], so TLS sessions can be resumed.
+         * See [createSSLPinningContext] for details about the non-blocking validation.
+         *
+         * @param certStore CertStore to base the SSL pinning on.
+         * @param peerHost Name of the server.
+         * @param peerPort Port of the server.
+         * @return SSLEngine in client mode capable of handling WultraSSLPinning.
+         *
+         * @since 1.5.0
+         */
+        @JvmStatic
+        fun createSSLPinningEngine(certStore: CertStore, peerHost: String, peerPort: Int): SSLEngine {
+            val engine = certStore.nonBlockingSSLContext.createSSLEngine(peerHost, peerPort)
+            engine.useClientMode = true
+            return engine
+        }
+
+        /**
+         * Creates trust manager chaining the pinning with the standard certificate validation.
+         *
+         * On Android N and newer, the platform trust manager requires the validation with access
+         * to the TLS handshake when the app's network security config has domain specific
+         * configurations, so the trust manager with access to the handshake is used.
+         *
+         * @param sslPinningTrustManager Trust manager capable of handling WultraSSLPinning.
+         * @param platformTrustManager Trust manager for the standard certificate validation.
+         * @param sdkInt API level of the system.
+         */
+        // sdkInt is always Build.VERSION.SDK_INT outside of tests
+        @SuppressLint("NewApi")
+        internal fun createCompositeTrustManager(sslPinningTrustManager: SSLPinningX509TrustManager,
+                                                 platformTrustManager: X509TrustManager = platformX509TrustManager,
+                                                 sdkInt: Int = Build.VERSION.SDK_INT): X509TrustManager {
+            if (sdkInt >= Build.VERSION_CODES.N) {
+                return CompositeX509ExtendedTrustManager(sslPinningTrustManager.toExtendedTrustManager(),
+                        platformTrustManager, CompositeX509TrustManager.Order.PINNING_FIRST, true)
+            }
+            return CompositeX509TrustManager(sslPinningTrustManager,
+                    platformTrustManager, CompositeX509TrustManager.Order.PINNING_FIRST, true)
+        }
+
+        private fun createSocketFactory(compositeTrustManager: TrustManager): SSLSocketFactory {
+            if (Build.VERSION.SDK_INT < Build.VERSION_CODES.LOLLIPOP) {
+                try {
+                    val sc = SSLContext.getInstance(Tls12SocketFactory.TLS12NAME)
+                    sc.init(null, arrayOf(compositeTrustManager), null)
+                    return Tls12SocketFactory(sc.socketFactory)
+                } catch (e: Exception) {
+                    Log.e("TLS12Factory", e.message ?: "")
                 }
+            }
+            return createContext(compositeTrustManager).socketFactory
+        }
 
+        private fun createContext(compositeTrustManager: TrustManager): SSLContext {
+            // SSLContext uses just the first X509TrustManager, so the validations are chained in one
+            val trustSslPinningCerts = arrayOf(compositeTrustManager)
+            try {
                 val sc = SSLContext.getInstance("TLS")
                 sc.init(null, trustSslPinningCerts, null)
-                return sc.socketFactory
+                return sc
             } catch (e: NoSuchAlgorithmException) {
                 throw RuntimeException(e)
             } catch (e: KeyManagementException) {
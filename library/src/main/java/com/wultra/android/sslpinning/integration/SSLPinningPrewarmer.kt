@@ -0,0 +1,193 @@
+/*
+ * Copyright 2026 Wultra s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package com.wultra.android.sslpinning.integration
+
+import androidx.annotation.WorkerThread
+import com.wultra.android.sslpinning.CertStore
+import com.wultra.android.sslpinning.model.CertificateSnapshot
+import com.wultra.android.sslpinning.service.WultraDebug
+import java.io.IOException
+import java.net.InetSocketAddress
+import java.net.Socket
+import java.net.SocketTimeoutException
+import java.util.concurrent.LinkedBlockingQueue
+import java.util.concurrent.ThreadFactory
+import java.util.concurrent.ThreadPoolExecutor
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicInteger
+import javax.net.ssl.SSLSocket
+import javax.net.ssl.SSLSocketFactory
+
+/**
+ * Opens TLS sessions to pinned hosts in advance.
+ *
+ * When started, the prewarmer connects to all configured hosts in the background
+ * whenever the [CertStore] loads or updates its data. The TLS handshakes validate the pins
+ * and fill the session cache of the socket factory, so the first request of the app
+ * can resume the session instead of doing a full handshake.
+ *
+ * Connections are closed right after the handshake. Failures are only logged.
+ *
+ * Prewarming may wait for unreachable hosts, so all prewarmers share a single thread of their own.
+ * It never delays updates and loading of the [CertStore] data.
+ *
+ * @param certStore CertStore to base the SSL pinning on.
+ * @param hosts Names of the hosts to connect to.
+ * @param port Port to connect to.
+ * @param socketFactory Socket factory whose sessions should be prewarmed. It should be the factory
+ * the app uses for its requests. The shared factory of the [CertStore] is used by default.
+ * @param timeoutMillis Timeout in milliseconds for connecting and for the handshake.
+ *
+ * @since 1.5.0
+ */
+class SSLPinningPrewarmer @JvmOverloads constructor(
+        private val certStore: CertStore,
+        private val hosts: List<String>,
+        private val port: Int = 443,
+        private val socketFactory: SSLSocketFactory = SSLPinningIntegration.getSSLPinningSocketFactory(certStore),
+        private val timeoutMillis: Int = 10_000) {
+
+    companion object {
+        /**
+         * Maximum time in milliseconds to wait for TLS 1.3 session tickets after the handshake.
+         */
+        private const val SESSION_TICKET_TIMEOUT_MILLIS = 500
+
+        private const val TLS_1_3 = "TLSv1.3"
+
+        private const val KEEP_ALIVE_SECONDS = 30L
+
+        /**
+         * Executor shared by all prewarmers. Its thread is terminated when idle.
+         */
+        private val executor: ThreadPoolExecutor by lazy {
+            val threadFactory = ThreadFactory { runnable ->
+                Thread(runnable, "SSLPinningPrewarm").apply {
+                    isDaemon = true
+                    priority = Thread.NORM_PRIORITY - 1
+                }
+            }
+            val executor = ThreadPoolExecutor(1, 1, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+                    LinkedBlockingQueue(), threadFactory)
+            executor.allowCoreThreadTimeOut(true)
+            executor
+        }
+    }
+
+    /**
+     * Number of prewarm requests not served yet.
+     */
+    private val requests = AtomicInteger(0)
+
+    private val snapshotListener: (CertificateSnapshot) -> Unit = { snapshot ->
+        if (!snapshot.isEmpty) {
+            schedule()
+        }
+    }
+
+    /**
+     * Start prewarming the hosts whenever the [CertStore] loads or updates its data.
+     * If the data are already loaded, the hosts are prewarmed right away.
+     */
+    fun start() {
+        certStore.addSnapshotListener(snapshotListener)
+        if (certStore.isLoaded && certStore.getCertificates().isNotEmpty()) {
+            schedule()
+        }
+    }
+
+    /**
+     * Stop prewarming the hosts on changes of the [CertStore] data.
+     * Prewarming that is already running is finished.
+     */
+    fun stop() {
+        certStore.removeSnapshotListener(snapshotListener)
+    }
+
+    /**
+     * Connect to all hosts and perform the TLS handshake.
+     *
+     * @return Number of hosts with a successful handshake.
+     */
+    @WorkerThread
+    fun prewarm(): Int {
+        return hosts.count { prewarmHost(it) }
+    }
+
+    /**
+     * Schedule prewarming in the background. Requests made while prewarming is running
+     * are coalesced into one more run.
+     */
+    private fun schedule() {
+        if (requests.getAndIncrement() > 0) {
+            return
+        }
+        try {
+            executor.execute {
+                do {
+                    val served = requests.get()
+                    try {
+                        prewarm()
+                    } catch (e: RuntimeException) {
+                        // the counter must be reset, otherwise prewarming is never scheduled again
+                        WultraDebug.error("SSLPinningPrewarmer: Prewarming failed: $e")
+                    }
+                } while (!requests.compareAndSet(served, 0))
+            }
+        } catch (e: RuntimeException) {
+            requests.set(0)
+            throw e
+        }
+    }
+
+    private fun prewarmHost(host: String): Boolean {
+        val plainSocket = Socket()
+        try {
+            plainSocket.connect(InetSocketAddress(host, port), timeoutMillis)
+            plainSocket.soTimeout = timeoutMillis
+            val socket = socketFactory.createSocket(plainSocket, host, port, true) as SSLSocket
+            socket.use {
+                it.startHandshake()
+                if (it.session?.protocol == TLS_1_3) {
+                    receiveSessionTickets(it)
+                }
+            }
+            return true
+        } catch (e: IOException) {
+            WultraDebug.warning("SSLPinningPrewarmer: Failed to prewarm '$host': $e")
+            return false
+        } finally {
+            plainSocket.close()
+        }
+    }
+
+    /**
+     * Receive the session tickets sent by the server after the handshake.
+     *
+     * With TLS 1.3 the session can be resumed only with a ticket, which arrives after
+     * the handshake and is processed only when reading from the socket. The server doesn't send
+     * any application data, so the read ends with a timeout or when the server closes the connection.
+     */
+    private fun receiveSessionTickets(socket: SSLSocket) {
+        socket.soTimeout = minOf(timeoutMillis, SESSION_TICKET_TIMEOUT_MILLIS)
+        try {
+            socket.inputStream.read()
+        } catch (e: SocketTimeoutException) {
+            // tickets received in the meantime are already processed
+        }
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright 2026 Wultra s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package com.wultra.android.sslpinning.integration
+
+import android.annotation.SuppressLint
+import android.os.Build
+import androidx.annotation.RequiresApi
+import com.wultra.android.sslpinning.CertStore
+import com.wultra.android.sslpinning.ValidationResult
+import java.net.Socket
+import java.security.cert.CertificateException
+import java.security.cert.X509Certificate
+import javax.net.ssl.SSLEngine
+import javax.net.ssl.SSLSession
+import javax.net.ssl.SSLSocket
+import javax.net.ssl.X509ExtendedTrustManager
+
+/**
+ * Trust manager for validating server certificates with WultraSSLPinning
+ * that has access to the TLS handshake.
+ *
+ * The trust manager can identify the server by the peer host of the handshake
+ * instead of the common name of the server certificate. Fingerprints pinned for the host name
+ * (or for a wildcard common name covering it) are then used. This avoids parsing
+ * the certificate subject and supports certificates that identify the server only
+ * in the subject alternative names.
+ *
+ * @param certStore CertStore to base the SSL pinning on.
+ * @param usePeerHost If true, the server is identified by the peer host of the handshake.
+ * The common name of the certificate is used when the peer host is not available.
+ * @param nonBlocking If true, the validation never waits for the [CertStore] to load its data.
+ * Server certificates are rejected until the data are loaded in the background. Useful for
+ * event loop threads that must not block.
+ *
+ * @since 1.5.0
+ */
+@RequiresApi(Build.VERSION_CODES.N)
+@Suppress("CustomX509TrustManager")
+class SSLPinningX509ExtendedTrustManager @JvmOverloads constructor(
+        private val certStore: CertStore,
+        private val usePeerHost: Boolean = false,
+        private val nonBlocking: Boolean = false) : X509ExtendedTrustManager() {
+
+    @SuppressLint("TrustAllX509TrustManager")
+    override fun checkClientTrusted(chain: Array<out X509Certificate>, authType: String) {
+    }
+
+    @SuppressLint("TrustAllX509TrustManager")
+    override fun checkClientTrusted(chain: Array<out X509Certificate>, authType: String, socket: Socket?) {
+    }
+
+    @SuppressLint("TrustAllX509TrustManager")
+    override fun checkClientTrusted(chain: Array<out X509Certificate>, authType: String, engine: SSLEngine?) {
+    }
+
+    override fun checkServerTrusted(chain: Array<out X509Certificate>, authType: String) {
+        validate(chain, null)
+    }
+
+    override fun checkServerTrusted(chain: Array<out X509Certificate>, authType: String, socket: Socket?) {
+        validate(chain, (socket as? SSLSocket)?.handshakeSession)
+    }
+
+    override fun checkServerTrusted(chain: Array<out X509Certificate>, authType: String, engine: SSLEngine?) {
+        validate(chain, engine?.handshakeSession)
+    }
+
+    override fun getAcceptedIssuers(): Array<X509Certificate> {
+        return arrayOf()
+    }
+
+    private fun validate(chain: Array<out X509Certificate>, session: SSLSession?) {
+        val hostname = if (usePeerHost) session?.peerHost else null
+        val verdict = certStore.verifyCertificate(chain[0], hostname, !nonBlocking)
+        if (verdict.result != ValidationResult.TRUSTED) {
+            // reject
+            throw CertificateException("WultraSSLpinning doesn't trust the server certificate")
+        }
+    }
+}
@@ -17,6 +17,8 @@
 package com.wultra.android.sslpinning.integration
 
 import android.annotation.SuppressLint
+import android.os.Build
+import androidx.annotation.RequiresApi
 import com.wultra.android.sslpinning.CertStore
 import com.wultra.android.sslpinning.ValidationResult
 import java.security.cert.CertificateException
@@ -26,17 +28,24 @@ import javax.net.ssl.X509TrustManager
 /**
  * Trust manager for validating server certificates with WultraSSLPinning.
  *
+ * @param certStore CertStore to base the SSL pinning on.
+ * @param nonBlocking If true, the validation never waits for the [CertStore] to load its data.
+ * Server certificates are rejected until the data are loaded in the background. Useful for
+ * event loop threads that must not block.
+ *
  * @author Tomas Kypta, tomas.kypta@wultra.com
  */
 @Suppress("CustomX509TrustManager")
-class SSLPinningX509TrustManager(private val certStore: CertStore) : X509TrustManager {
+class SSLPinningX509TrustManager @JvmOverloads constructor(
+        private val certStore: CertStore,
+        private val nonBlocking: Boolean = false) : X509TrustManager {
 
     @SuppressLint("TrustAllX509TrustManager")
     override fun checkClientTrusted(chain: Array<out X509Certificate>, authType: String) {
     }
 
     override fun checkServerTrusted(chain: Array<out X509Certificate>, authType: String) {
-        if (certStore.validateCertificate(chain[0]) != ValidationResult.TRUSTED) {
+        if (certStore.verifyCertificate(chain[0], blocking = !nonBlocking).result != ValidationResult.TRUSTED) {
             // reject
             throw CertificateException("WultraSSLpinning doesn't trust the server certificate")
         }
@@ -45,4 +54,12 @@ class SSLPinningX509TrustManager(private val certStore: CertStore) : X509TrustMa
     override fun getAcceptedIssuers(): Array<X509Certificate> {
         return arrayOf()
     }
+
+    /**
+     * Returns trust manager with the same validation that has access to the TLS handshake.
+     */
+    @RequiresApi(Build.VERSION_CODES.N)
+    internal fun toExtendedTrustManager(): SSLPinningX509ExtendedTrustManager {
+        return SSLPinningX509ExtendedTrustManager(certStore, nonBlocking = nonBlocking)
+    }
 }
\ No newline at end of file
@@ -18,7 +18,6 @@ package com.wultra.android.sslpinning.integration.powerauth
 
 import com.wultra.android.sslpinning.CertStore
 import com.wultra.android.sslpinning.integration.SSLPinningIntegration
-import com.wultra.android.sslpinning.integration.SSLPinningX509TrustManager
 import io.getlime.security.powerauth.networking.ssl.HttpClientValidationStrategy
 import javax.net.ssl.HostnameVerifier
 import javax.net.ssl.SSLSocketFactory
@@ -27,7 +26,7 @@ import javax.net.ssl.X509TrustManager
 /**
  * Validation strategy for PowerAuth SDK incorporating WultraSSLPinning.
  *
- * It adds extra [X509TrustManager] to the SSLContext in front of the default trust managers.
+ * It chains WultraSSLPinning with the default [X509TrustManager] in the SSLContext.
  * This way first WultraSSLPinning is checked. Then the standard certificate validation
  * has its way.
  *
@@ -35,16 +34,12 @@ import javax.net.ssl.X509TrustManager
  */
 class PowerAuthSslPinningValidationStrategy(private val certStore: CertStore) : HttpClientValidationStrategy {
 
-    /**
-     * Trust manager for validating server certificates with WultraSSLPinning.
-     */
-    private val sslPinningTrustManager = SSLPinningX509TrustManager(certStore)
-
     override fun getHostnameVerifier(): HostnameVerifier? {
         return null
     }
 
     override fun getSSLSocketFactory(): SSLSocketFactory? {
-        return SSLPinningIntegration.createSSLPinningSocketFactory(sslPinningTrustManager)
+        // reuse the factory, PowerAuth SDK asks for it with every request
+        return SSLPinningIntegration.getSSLPinningSocketFactory(certStore)
     }
 }
\ No newline at end of file
@@ -21,10 +21,18 @@ import java.util.*
 /**
  * Data class for stored data - list of certificates and next update date.
  *
+ * @property eTag Value of `ETag` header of the response the certificates were received in.
+ * @property lastModified Value of `Last-Modified` header of the response the certificates were received in.
+ * @property verifiedEntries Digests of the received entries with already verified signature,
+ * see [GetFingerprintResponse.Entry.verificationDigest].
+ *
  * @author Tomas Kypta, tomas.kypta@wultra.com
  */
 internal data class CachedData(var certificates: Array<CertificateInfo>,
-                               var nextUpdate: Date) {
+                               var nextUpdate: Date,
+                               var eTag: String? = null,
+                               var lastModified: String? = null,
+                               var verifiedEntries: Set<String>? = null) {
 
     internal fun numberOfValidCertificates(date: Date): Int {
         var result = 0
@@ -54,6 +62,9 @@ internal data class CachedData(var certificates: Array<CertificateInfo>,
 
         if (!certificates.contentEquals(other.certificates)) return false
         if (nextUpdate != other.nextUpdate) return false
+        if (eTag != other.eTag) return false
+        if (lastModified != other.lastModified) return false
+        if (verifiedEntries != other.verifiedEntries) return false
 
         return true
     }
@@ -61,6 +72,9 @@ internal data class CachedData(var certificates: Array<CertificateInfo>,
     override fun hashCode(): Int {
         var result = certificates.contentHashCode()
         result = 31 * result + nextUpdate.hashCode()
+        result = 31 * result + (eTag?.hashCode() ?: 0)
+        result = 31 * result + (lastModified?.hashCode() ?: 0)
+        result = 31 * result + (verifiedEntries?.hashCode() ?: 0)
         return result
     }
 }
@@ -0,0 +1,104 @@
+/*
+ * Copyright 2026 Wultra s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package com.wultra.android.sslpinning.model
+
+import java.util.Locale
+
+/**
+ * Immutable view of all certificates the store validates against.
+ *
+ * The snapshot merges certificates from [CachedData] with the fallback certificates,
+ * so the validation doesn't have to allocate or lock. Certificates are also indexed
+ * by their common name, so the lookup doesn't depend on the number of pinned names.
+ * A new snapshot is created whenever the underlying data change. The content must never be modified.
+ *
+ * @property certificates Stored certificates followed by the fallback certificates.
+ * @property generation Generation of the store data. Every change of the data creates
+ * a snapshot with a higher generation.
+ */
+internal class CertificateSnapshot private constructor(val certificates: Array<CertificateInfo>,
+                                                       val generation: Long) {
+
+    /**
+     * Certificates grouped by common name. Each group keeps the order of [certificates].
+     */
+    private val certificatesByCommonName: Map<String, Array<CertificateInfo>> =
+            certificates.groupBy { it.commonName }.mapValues { it.value.toTypedArray() }
+
+    /**
+     * Check if the snapshot contains no certificate.
+     */
+    val isEmpty: Boolean
+        get() = certificates.isEmpty()
+
+    /**
+     * Returns all certificates issued for the given common name.
+     *
+     * @param commonName Common name to look up.
+     * @return Certificates for the common name, including the expired ones. Empty array if there's none.
+     */
+    fun certificatesFor(commonName: String): Array<CertificateInfo> {
+        return certificatesByCommonName[commonName] ?: NO_CERTIFICATES
+    }
+
+    /**
+     * Returns the common name pinned for the host.
+     *
+     * The host name itself is preferred. If there's no certificate for it, a wildcard common name
+     * covering the host (e.g. `*.example.com` for `api.example.com`) is used.
+     *
+     * @param hostname Name of the host.
+     * @return Pinned common name for the host. The lowercase host name if nothing is pinned for it.
+     */
+    fun commonNameForHost(hostname: String): String {
+        val host = hostname.lowercase(Locale.US).trimEnd('.')
+        if (certificatesByCommonName.containsKey(host)) {
+            return host
+        }
+        val dot = host.indexOf('.')
+        if (dot > 0) {
+            val wildcard = "*" + host.substring(dot)
+            if (certificatesByCommonName.containsKey(wildcard)) {
+                return wildcard
+            }
+        }
+        return host
+    }
+
+    companion object {
+        private val NO_CERTIFICATES = emptyArray<CertificateInfo>()
+
+        /**
+         * Snapshot without any certificate.
+         */
+        val EMPTY = CertificateSnapshot(NO_CERTIFICATES, 0)
+
+        /**
+         * Creates a snapshot from the stored data and the fallback certificates.
+         *
+         * @param cachedData Currently stored data, if any.
+         * @param fallbackCertificates Fallback certificates from the configuration.
+         * @param generation Generation of the data.
+         */
+        fun create(cachedData: CachedData?,
+                   fallbackCertificates: Array<CertificateInfo>,
+                   generation: Long): CertificateSnapshot {
+            val certificates = cachedData?.let { it.certificates + fallbackCertificates } ?: fallbackCertificates
+            return CertificateSnapshot(certificates, generation)
+        }
+    }
+}
@@ -18,9 +18,15 @@ package com.wultra.android.sslpinning.model
 
 import android.util.Base64
 import com.wultra.android.sslpinning.interfaces.SignedData
+import java.security.MessageDigest
 import java.util.*
 import java.util.concurrent.TimeUnit
 
+/**
+ * Length of the truncated digest of a verified entry.
+ */
+private const val VERIFICATION_DIGEST_LENGTH = 16
+
 /**
  * Data class for JSON response received from the server.
  *
@@ -56,6 +62,26 @@ data class GetFingerprintResponse(val fingerprints: Array<Entry>) {
             return SignedData(data = signedString.toByteArray(Charsets.UTF_8), signature = signature)
         }
 
+        /**
+         * Get digest identifying the entry together with its signature and the public key
+         * verifying the signature. Entries with the same digest don't have to be verified again.
+         *
+         * @param publicKey Public key from the configuration.
+         * @return Base64 encoded digest. Null if the entry has no signature.
+         */
+        internal fun verificationDigest(publicKey: ByteArray): String? {
+            val signedData = dataForSignature() ?: return null
+            val digest = MessageDigest.getInstance("SHA-256")
+            digest.update(publicKey)
+            digest.update(0)
+            digest.update(signedData.data)
+            digest.update(0)
+            digest.update(signedData.signature)
+            // truncated, collisions are still impossible to find in practice
+            val hash = digest.digest().copyOf(VERIFICATION_DIGEST_LENGTH)
+            return Base64.encodeToString(hash, Base64.NO_WRAP)
+        }
+
         override fun equals(other: Any?): Boolean {
             if (this === other) return true
             if (javaClass != other?.javaClass) return false
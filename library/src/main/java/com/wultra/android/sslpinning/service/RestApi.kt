@@ -19,30 +19,54 @@ package com.wultra.android.sslpinning.service
 import androidx.annotation.WorkerThread
 import com.wultra.android.sslpinning.SslValidationStrategy
 import java.io.IOException
+import java.io.InputStream
+import java.io.PushbackInputStream
 import java.lang.Exception
 import java.net.HttpURLConnection
 import java.net.URL
 import java.nio.charset.Charset
 import java.util.*
+import java.util.zip.GZIPInputStream
+import javax.net.ssl.HostnameVerifier
 import javax.net.ssl.HttpsURLConnection
+import javax.net.ssl.SSLSocketFactory
 
 /**
  * Handling of network communication with the server.
  * Used internally in [com.wultra.android.sslpinning.CertStore].
  *
  * @property baseUrl URL of the remote server.
+ * @property keepAlive If true, the connection is kept open after a completed request,
+ * so the following request can reuse it without a new TCP and TLS handshake.
  * @author Tomas Kypta, tomas.kypta@wultra.com
  */
-class RestApi(
+class RestApi @JvmOverloads constructor(
         private val baseUrl: URL,
-        private val sslValidationStrategy: SslValidationStrategy?) : RemoteDataProvider {
+        private val sslValidationStrategy: SslValidationStrategy?,
+        private val keepAlive: Boolean = true) : RemoteDataProvider {
 
     companion object {
         const val CONTENT_TYPE = "application/json"
+        /**
+         * Content encoding accepted from the server. The platform has no brotli decoder,
+         * so just gzip is negotiated.
+         */
+        const val ACCEPT_ENCODING = "gzip"
     }
 
-    init {
+    /**
+     * Socket factory from the validation strategy. Created just once, connections are reused
+     * only for the same socket factory instance.
+     */
+    private val sslSocketFactory: SSLSocketFactory? by lazy {
+        sslValidationStrategy?.sslSocketFactory()
+    }
 
+    /**
+     * Hostname verifier from the validation strategy.
+     */
+    private val hostnameVerifier: HostnameVerifier? by lazy {
+        sslValidationStrategy?.hostnameVerifier()
     }
 
     /**
@@ -60,14 +84,16 @@ class RestApi(
         val connection = baseUrl.openConnection() as HttpURLConnection
         connection.requestMethod = "GET"
         connection.addRequestProperty("Accept", CONTENT_TYPE)
+        // with an explicit header, the connection never decompresses the response on its own
+        connection.addRequestProperty("Accept-Encoding", ACCEPT_ENCODING)
         request.requestHeaders.forEach { header ->
             connection.addRequestProperty(header.key, header.value)
         }
         if (sslValidationStrategy != null) {
             val secureConnection = connection as? HttpsURLConnection
             if (secureConnection != null) {
-                val socketFactory = sslValidationStrategy.sslSocketFactory()
-                val hosntameVerifier = sslValidationStrategy.hostnameVerifier()
+                val socketFactory = sslSocketFactory
+                val hosntameVerifier = hostnameVerifier
                 if (socketFactory != null) {
                     secureConnection.sslSocketFactory = socketFactory
                 }
@@ -77,12 +103,16 @@ class RestApi(
             }
         }
         logRequest(connection)
+        // the connection can be reused only if the response was read completely
+        var reusable = false
         try {
             connection.connect()
             val responseCode = connection.responseCode
-            val responseOk = responseCode / 100 == 2
-            val inputStream = if (responseOk) connection.inputStream else connection.errorStream
-            val data = inputStream.use { it.readBytes() }
+            // response to a conditional request, the data didn't change
+            val responseOk = responseCode / 100 == 2 || responseCode == HttpURLConnection.HTTP_NOT_MODIFIED
+            val inputStream: InputStream? = if (responseOk) connection.inputStream else connection.errorStream
+            val data = inputStream?.let { decodedStream(connection, it) }?.use { it.readBytes() } ?: ByteArray(0)
+            reusable = true
             val headers = mutableMapOf<String, String>()
             connection.headerFields.keys.forEach { headerName ->
                 if (headerName != null) {
@@ -107,8 +137,34 @@ class RestApi(
             WultraDebug.warning("RestAPI: HTTP request failed with error: $t")
             throw t
         } finally {
-            connection.disconnect()
+            if (!keepAlive || !reusable) {
+                connection.disconnect()
+            }
+        }
+    }
+
+    /**
+     * Wrap the response stream into decompression according to the content encoding of the response.
+     * The data are decompressed while being read, so the caller (and the signature validation)
+     * always get the original payload.
+     *
+     * @param connection Connection object.
+     * @param inputStream Stream with the response body as received.
+     * @return Stream with the decompressed response body.
+     */
+    private fun decodedStream(connection: HttpURLConnection, inputStream: InputStream): InputStream {
+        val encoding = connection.contentEncoding?.trim()
+        if (encoding == null || !encoding.equals(ACCEPT_ENCODING, ignoreCase = true)) {
+            return inputStream
+        }
+        // responses without a body (e.g. 304) may still declare the encoding
+        val stream = PushbackInputStream(inputStream, 1)
+        val first = stream.read()
+        if (first == -1) {
+            return stream
         }
+        stream.unread(first)
+        return GZIPInputStream(stream)
     }
 
     /**
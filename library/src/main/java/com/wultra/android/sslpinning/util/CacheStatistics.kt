@@ -0,0 +1,40 @@
+/*
+ * Copyright 2026 Wultra s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package com.wultra.android.sslpinning.util
+
+/**
+ * Statistics of an internal cache used by the library.
+ *
+ * @property hits Number of lookups served from the cache.
+ * @property misses Number of lookups that had to compute the value.
+ * @property evictions Number of live entries dropped to make room for new ones.
+ *
+ * @since 1.5.0
+ */
+data class CacheStatistics(val hits: Long,
+                           val misses: Long,
+                           val evictions: Long) {
+
+    /**
+     * Ratio of lookups served from the cache, in range 0.0 to 1.0.
+     */
+    val hitRate: Double
+        get() {
+            val lookups = hits + misses
+            return if (lookups == 0L) 0.0 else hits.toDouble() / lookups
+        }
+}
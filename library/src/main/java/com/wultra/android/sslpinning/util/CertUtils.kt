@@ -16,6 +16,7 @@
 
 package com.wultra.android.sslpinning.util
 
+import com.wultra.android.sslpinning.service.WultraDebug
 import java.security.cert.X509Certificate
 
 /**
@@ -27,17 +28,39 @@ class CertUtils {
 
     companion object {
 
+        /**
+         * Cache of already parsed common names.
+         */
+        private val commonNameCache = CommonNameCache()
+
         /**
          * Parse common name (CN) out of certificate's distinguished name (DN).
          *
          * Note: on Android there's no native API for parsing it.
          * And we don't want to include Spongy Castle (https://rtyley.github.io/spongycastle)
          * for this task.
-         * The parsing is taken from OkHttp library [DistinguishedNameParser].
+         * The name is parsed directly from its DER encoding with [DerDistinguishedNameParser].
+         * If that fails, the parsing taken from OkHttp library [DistinguishedNameParser] is used.
+         *
+         * Parsed common names are kept in a bounded LRU cache keyed by the subject's DER encoding.
          */
         fun parseCommonName(certificate: X509Certificate): String {
-            val dnParser = DistinguishedNameParser(certificate.subjectX500Principal)
-            return dnParser.findMostSpecific("CN")
+            return commonNameCache.commonName(certificate.subjectX500Principal) { principal ->
+                try {
+                    DerDistinguishedNameParser(principal).findMostSpecific(DerDistinguishedNameParser.COMMON_NAME_OID)
+                } catch (e: IllegalStateException) {
+                    WultraDebug.warning("CertUtils: Failed to parse DER encoded name, falling back to RFC 2253: $e")
+                    DistinguishedNameParser(principal).findMostSpecific("CN")
+                }
+            }
         }
+
+        /**
+         * Statistics of the cache used by [parseCommonName].
+         *
+         * @since 1.5.0
+         */
+        val commonNameCacheStatistics: CacheStatistics
+            get() = commonNameCache.statistics
     }
 }
\ No newline at end of file
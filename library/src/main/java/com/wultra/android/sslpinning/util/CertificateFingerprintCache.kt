@@ -0,0 +1,90 @@
+/*
+ * Copyright 2026 Wultra s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package com.wultra.android.sslpinning.util
+
+import java.util.concurrent.atomic.AtomicLong
+import java.util.concurrent.atomic.AtomicReferenceArray
+
+/**
+ * Bounded cache of certificate fingerprints keyed by the encoded certificate.
+ *
+ * TLS providers decode a new certificate object for every full handshake, so the cache
+ * is keyed by the certificate content instead of the object. Comparing the encoded bytes
+ * is much cheaper than computing SHA-256 of them.
+ *
+ * The cache is direct-mapped: every encoded certificate maps to a single slot by its content
+ * hash code and a newer certificate replaces the older one in the slot.
+ * Lookups and updates are lock-free.
+ *
+ * @param capacity Maximum number of cached fingerprints, rounded up to a power of two.
+ */
+internal class CertificateFingerprintCache(capacity: Int = DEFAULT_CAPACITY) {
+
+    companion object {
+        const val DEFAULT_CAPACITY = 32
+    }
+
+    private class Entry(val encoded: ByteArray,
+                        val fingerprint: ByteArray)
+
+    private val slots: AtomicReferenceArray<Entry?>
+    private val mask: Int
+
+    private val hits = AtomicLong()
+    private val misses = AtomicLong()
+    private val evictions = AtomicLong()
+
+    init {
+        if (capacity <= 0) {
+            throw IllegalArgumentException("Cache capacity must be positive.")
+        }
+        val size = Integer.highestOneBit(capacity).let { if (it < capacity) it shl 1 else it }
+        slots = AtomicReferenceArray(size)
+        mask = size - 1
+    }
+
+    /**
+     * Returns the fingerprint of the encoded certificate, computing it if it's not cached.
+     * The returned array is shared and must not be modified.
+     *
+     * @param encoded Encoded certificate to get the fingerprint for. The cache keeps the array,
+     * so it must not be modified afterwards.
+     * @param computeFingerprint Function computing the fingerprint on a cache miss.
+     * @return Fingerprint of the certificate.
+     */
+    fun fingerprint(encoded: ByteArray, computeFingerprint: (ByteArray) -> ByteArray): ByteArray {
+        val slot = encoded.contentHashCode() and mask
+        val entry = slots.get(slot)
+        if (entry != null && entry.encoded.contentEquals(encoded)) {
+            hits.incrementAndGet()
+            return entry.fingerprint
+        }
+        misses.incrementAndGet()
+        val fingerprint = computeFingerprint(encoded)
+        val evicted = slots.getAndSet(slot, Entry(encoded, fingerprint))
+        if (evicted != null && !evicted.encoded.contentEquals(encoded)) {
+            evictions.incrementAndGet()
+        }
+        return fingerprint
+    }
+
+    /**
+     * Current statistics of the cache.
+     */
+    val statistics: CacheStatistics
+        get() = CacheStatistics(hits = hits.get(), misses = misses.get(), evictions = evictions.get())
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright 2026 Wultra s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package com.wultra.android.sslpinning.util
+
+import javax.security.auth.x500.X500Principal
+
+/**
+ * Bounded LRU cache of common names parsed from distinguished names.
+ *
+ * The cache is keyed by the DER encoding of [X500Principal], so different principal
+ * instances with the same name share a single entry. The operations are thread safe.
+ *
+ * @param capacity Maximum number of cached common names.
+ */
+internal class CommonNameCache(private val capacity: Int = DEFAULT_CAPACITY) {
+
+    companion object {
+        const val DEFAULT_CAPACITY = 128
+    }
+
+    /**
+     * Key wrapping DER encoded principal.
+     */
+    private class PrincipalKey(private val encoded: ByteArray) {
+        private val hash = encoded.contentHashCode()
+
+        override fun equals(other: Any?): Boolean {
+            if (this === other) return true
+            if (javaClass != other?.javaClass) return false
+            other as PrincipalKey
+            return hash == other.hash && encoded.contentEquals(other.encoded)
+        }
+
+        override fun hashCode(): Int = hash
+    }
+
+    private val entries = object : LinkedHashMap<PrincipalKey, String>(16, 0.75f, true) {
+        override fun removeEldestEntry(eldest: MutableMap.MutableEntry<PrincipalKey, String>?): Boolean {
+            if (size > capacity) {
+                evictions += 1
+                return true
+            }
+            return false
+        }
+    }
+
+    private var hits = 0L
+    private var misses = 0L
+    private var evictions = 0L
+
+    init {
+        if (capacity <= 0) {
+            throw IllegalArgumentException("Cache capacity must be positive.")
+        }
+    }
+
+    /**
+     * Returns the common name for the principal, parsing it if it's not cached.
+     *
+     * The parsing runs outside of the cache lock, so two threads may parse the same
+     * principal concurrently. Both get the same result.
+     *
+     * @param principal Principal to get the common name for.
+     * @param parseCommonName Function parsing the common name on a cache miss.
+     * @return Common name of the principal.
+     */
+    fun commonName(principal: X500Principal, parseCommonName: (X500Principal) -> String): String {
+        val key = PrincipalKey(principal.encoded)
+        synchronized(entries) {
+            val cached = entries[key]
+            if (cached != null) {
+                hits += 1
+                return cached
+            }
+            misses += 1
+        }
+        val commonName = parseCommonName(principal)
+        synchronized(entries) {
+            entries[key] = commonName
+        }
+        return commonName
+    }
+
+    /**
+     * Current statistics of the cache.
+     */
+    val statistics: CacheStatistics
+        get() = synchronized(entries) {
+            CacheStatistics(hits = hits, misses = misses, evictions = evictions)
+        }
+}
@@ -0,0 +1,204 @@
+/*
+ * Copyright 2026 Wultra s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package com.wultra.android.sslpinning.util;
+
+import java.nio.charset.Charset;
+
+import javax.security.auth.x500.X500Principal;
+
+/**
+ * A distinguished name (DN) parser working directly on the DER encoding of an X.500 name,
+ * as returned from {@link X500Principal#getEncoded()}. Unlike {@link DistinguishedNameParser},
+ * it doesn't format the name to an RFC 2253 string, it only decodes the requested value.
+ *
+ * Values encoded as PrintableString, TeletexString, IA5String, GeneralString, BMPString or UTF8String
+ * are decoded to a string. Values of other types are returned in the RFC 2253 hex-string form
+ * ("#" followed by the hex encoded value), the same way as {@link DistinguishedNameParser} returns them.
+ * An empty value is always returned as an empty string.
+ */
+final class DerDistinguishedNameParser {
+
+    /** OID 2.5.4.3 of the common name (CN) attribute type. */
+    static final byte[] COMMON_NAME_OID = { 0x55, 0x04, 0x03 };
+
+    private static final int TAG_OBJECT_IDENTIFIER = 0x06;
+    private static final int TAG_UTF8_STRING = 0x0C;
+    private static final int TAG_PRINTABLE_STRING = 0x13;
+    private static final int TAG_T61_STRING = 0x14;
+    private static final int TAG_IA5_STRING = 0x16;
+    private static final int TAG_GENERAL_STRING = 0x1B;
+    private static final int TAG_BMP_STRING = 0x1E;
+    private static final int TAG_SEQUENCE = 0x30;
+    private static final int TAG_SET = 0x31;
+
+    private static final Charset US_ASCII = Charset.forName("US-ASCII");
+    private static final Charset ISO_8859_1 = Charset.forName("ISO-8859-1");
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+    private static final Charset UTF_16BE = Charset.forName("UTF-16BE");
+
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    private final byte[] der;
+
+    /** Position of the currently parsed byte. */
+    private int pos;
+    /** Tag of the last element read by {@link #readHeader(int)}. */
+    private int tag;
+    /** Length of the content of the last element read by {@link #readHeader(int)}. */
+    private int length;
+
+    DerDistinguishedNameParser(byte[] encodedName) {
+        this.der = encodedName;
+    }
+
+    DerDistinguishedNameParser(X500Principal principal) {
+        this(principal.getEncoded());
+    }
+
+    /**
+     * Parses the DN and returns the most significant attribute value for an attribute type, or null
+     * if none found.
+     *
+     * The most significant value is the first matching value in the last relative distinguished name
+     * containing the attribute type. That's the first match in RFC 2253 formatting.
+     *
+     * @param attributeTypeOid DER encoded content of the attribute type OID (e.g. {@link #COMMON_NAME_OID})
+     */
+    String findMostSpecific(byte[] attributeTypeOid) {
+        pos = 0;
+        readHeader(TAG_SEQUENCE);
+        final int nameEnd = pos + length;
+        if (nameEnd != der.length) {
+            throw new IllegalStateException("Malformed DER name: unexpected trailing data");
+        }
+
+        // position of the matching value element, from the last matching RDN
+        int valueStart = -1;
+        while (pos < nameEnd) {
+            readHeader(TAG_SET);
+            final int rdnEnd = pos + length;
+            boolean matchInRdn = false;
+            while (pos < rdnEnd) {
+                readHeader(TAG_SEQUENCE);
+                final int avaEnd = pos + length;
+                readHeader(TAG_OBJECT_IDENTIFIER);
+                final boolean matches = !matchInRdn && contentEquals(attributeTypeOid);
+                pos += length;
+                if (matches) {
+                    matchInRdn = true;
+                    valueStart = pos;
+                }
+                // skip the value
+                readHeader(-1);
+                pos += length;
+                if (pos != avaEnd) {
+                    throw new IllegalStateException("Malformed DER name: invalid attribute");
+                }
+            }
+            if (pos != rdnEnd) {
+                throw new IllegalStateException("Malformed DER name: invalid RDN");
+            }
+        }
+        if (valueStart < 0) {
+            return null;
+        }
+        pos = valueStart;
+        return decodeValue();
+    }
+
+    // decodes attribute value at the current position
+    private String decodeValue() {
+        final int valueStart = pos;
+        readHeader(-1);
+        switch (tag) {
+            case TAG_UTF8_STRING:
+                return new String(der, pos, length, UTF_8);
+            case TAG_PRINTABLE_STRING:
+            case TAG_IA5_STRING:
+            case TAG_GENERAL_STRING:
+                return new String(der, pos, length, US_ASCII);
+            case TAG_T61_STRING:
+                return new String(der, pos, length, ISO_8859_1);
+            case TAG_BMP_STRING:
+                return new String(der, pos, length, UTF_16BE);
+            default:
+                // no string representation, use "#" followed by hex encoded value
+                final int valueEnd = pos + length;
+                final char[] hex = new char[1 + 2 * (valueEnd - valueStart)];
+                hex[0] = '#';
+                for (int i = valueStart, h = 1; i < valueEnd; i++) {
+                    hex[h++] = HEX_DIGITS[(der[i] >> 4) & 0x0F];
+                    hex[h++] = HEX_DIGITS[der[i] & 0x0F];
+                }
+                return new String(hex);
+        }
+    }
+
+    // compares content of the current element with given bytes
+    private boolean contentEquals(byte[] expected) {
+        if (length != expected.length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (der[pos + i] != expected[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // reads tag and length of an element, position is moved to the element's content
+    // use negative expectedTag to accept any tag
+    private void readHeader(int expectedTag) {
+        tag = nextByte();
+        if ((tag & 0x1F) == 0x1F) {
+            // high tag number form, only skip it, such tags are never string types
+            int b;
+            do {
+                b = nextByte();
+            } while ((b & 0x80) != 0);
+            tag = -1;
+        }
+        if (expectedTag >= 0 && tag != expectedTag) {
+            throw new IllegalStateException("Malformed DER name: unexpected tag at " + (pos - 1));
+        }
+
+        int len = nextByte();
+        if ((len & 0x80) != 0) {
+            final int count = len & 0x7F;
+            if (count == 0 || count > 3) {
+                // indefinite length is not allowed in DER, longer names are not supported
+                throw new IllegalStateException("Malformed DER name: unsupported length");
+            }
+            len = 0;
+            for (int i = 0; i < count; i++) {
+                len = (len << 8) | nextByte();
+            }
+        }
+        if (len > der.length - pos) {
+            throw new IllegalStateException("Malformed DER name: unexpected end of data");
+        }
+        length = len;
+    }
+
+    private int nextByte() {
+        if (pos >= der.length) {
+            throw new IllegalStateException("Malformed DER name: unexpected end of data");
+        }
+        return der[pos++] & 0xFF;
+    }
+}
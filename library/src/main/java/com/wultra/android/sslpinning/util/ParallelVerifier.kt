@@ -0,0 +1,154 @@
+/*
+ * Copyright 2026 Wultra s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package com.wultra.android.sslpinning.util
+
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.Executor
+import java.util.concurrent.LinkedBlockingQueue
+import java.util.concurrent.ThreadFactory
+import java.util.concurrent.ThreadPoolExecutor
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicInteger
+import java.util.concurrent.atomic.AtomicReferenceArray
+
+/**
+ * Runs independent checks of items in parallel and reports the first failed item.
+ *
+ * The calling thread takes part in the work and helpers from the [executor] pick the remaining
+ * items, so the checks complete even if the executor is busy. The result is deterministic:
+ * the first failure in the order of items is reported regardless of the order of evaluation.
+ * Items after an already known failure are not checked at all.
+ *
+ * @param executor Executor for the helper tasks.
+ * @param parallelism Maximum number of threads checking the items, including the calling thread.
+ * @param minItemsPerThread Minimal number of items for each additional thread.
+ * Smaller inputs are checked on fewer threads or directly on the calling thread.
+ */
+internal class ParallelVerifier(private val executor: Executor,
+                                private val parallelism: Int,
+                                private val minItemsPerThread: Int = DEFAULT_MIN_ITEMS_PER_THREAD) {
+
+    companion object {
+        const val DEFAULT_MIN_ITEMS_PER_THREAD = 4
+
+        /**
+         * Number of threads for the shared instance, the calling thread included.
+         */
+        private val SHARED_PARALLELISM = Runtime.getRuntime().availableProcessors().coerceIn(1, 4)
+
+        /**
+         * Instance with a shared pool of daemon threads, created on the first use.
+         * The idle threads are terminated.
+         */
+        val shared: ParallelVerifier by lazy {
+            val helpers = maxOf(1, SHARED_PARALLELISM - 1)
+            val counter = AtomicInteger()
+            val threadFactory = ThreadFactory { runnable ->
+                Thread(runnable, "CertStoreVerifier-${counter.incrementAndGet()}").apply {
+                    isDaemon = true
+                }
+            }
+            val executor = ThreadPoolExecutor(helpers, helpers, 30, TimeUnit.SECONDS,
+                    LinkedBlockingQueue(), threadFactory)
+            executor.allowCoreThreadTimeOut(true)
+            ParallelVerifier(executor, SHARED_PARALLELISM)
+        }
+    }
+
+    /**
+     * Result of the first failed check.
+     *
+     * @property index Index of the failed item.
+     * @property error Exception thrown by the check, if any.
+     */
+    private class Failure(val index: Int, val error: Throwable?)
+
+    /**
+     * Checks all items.
+     *
+     * @param items Items to check.
+     * @param check Check of a single item, returning false for an invalid item. Must be thread-safe.
+     * @return Index of the first item failing the check. -1 if all items passed.
+     * @throws Throwable Exception thrown by the check of the first failed item.
+     */
+    fun <T> firstFailure(items: List<T>, check: (T) -> Boolean): Int {
+        val threads = minOf(parallelism, items.size / minItemsPerThread)
+        if (threads <= 1) {
+            items.forEachIndexed { index, item ->
+                if (!check(item)) {
+                    return index
+                }
+            }
+            return -1
+        }
+
+        val nextIndex = AtomicInteger()
+        val failures = AtomicReferenceArray<Failure?>(items.size)
+        // lowest index of a failed item found so far
+        val failedIndex = AtomicInteger(items.size)
+        val remaining = CountDownLatch(items.size)
+
+        val worker = Runnable {
+            while (true) {
+                val index = nextIndex.getAndIncrement()
+                if (index >= items.size) {
+                    break
+                }
+                try {
+                    if (index < failedIndex.get()) {
+                        val passed = try {
+                            check(items[index])
+                        } catch (t: Throwable) {
+                            failures.set(index, Failure(index, t))
+                            false
+                        }
+                        if (!passed) {
+                            if (failures.get(index) == null) {
+                                failures.set(index, Failure(index, null))
+                            }
+                            failedIndex.lowerTo(index)
+                        }
+                    }
+                } finally {
+                    remaining.countDown()
+                }
+            }
+        }
+        repeat(threads - 1) {
+            executor.execute(worker)
+        }
+        worker.run()
+        // the helpers may still be checking the items they have picked
+        remaining.await()
+
+        val index = failedIndex.get()
+        if (index == items.size) {
+            return -1
+        }
+        failures.get(index)?.error?.let { throw it }
+        return index
+    }
+
+    private fun AtomicInteger.lowerTo(value: Int) {
+        while (true) {
+            val current = get()
+            if (value >= current || compareAndSet(current, value)) {
+                return
+            }
+        }
+    }
+}
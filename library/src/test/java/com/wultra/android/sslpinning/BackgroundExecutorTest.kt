@@ -0,0 +1,69 @@
+/*
+ * Copyright 2026 Wultra s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package com.wultra.android.sslpinning
+
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertTrue
+import org.junit.Test
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.TimeUnit
+
+/**
+ * Tests for [BackgroundExecutor].
+ */
+class BackgroundExecutorTest {
+
+    @Test
+    fun testTaskRunsOnNamedDaemonThread() {
+        val finished = CountDownLatch(1)
+        var thread: Thread? = null
+        var threadName: String? = null
+        BackgroundExecutor.execute(Runnable {
+            thread = Thread.currentThread()
+            threadName = Thread.currentThread().name
+            finished.countDown()
+        }, "Test")
+        assertTrue(finished.await(5, TimeUnit.SECONDS))
+        assertTrue(thread!!.isDaemon)
+        assertTrue(threadName!!.startsWith("CertStoreBackground-"))
+        assertTrue(threadName!!.endsWith("-Test"))
+    }
+
+    @Test
+    fun testStatistics() {
+        val started = CountDownLatch(2)
+        val release = CountDownLatch(1)
+        val finished = CountDownLatch(3)
+        repeat(3) {
+            BackgroundExecutor.execute(Runnable {
+                started.countDown()
+                release.await(5, TimeUnit.SECONDS)
+                finished.countDown()
+            }, "Blocking")
+        }
+        try {
+            assertTrue(started.await(5, TimeUnit.SECONDS))
+            val statistics = CertStore.getBackgroundExecutorStatistics()
+            // the pool has two threads, the third task waits in the queue
+            assertEquals(2, statistics.activeTasks)
+            assertEquals(1, statistics.queuedTasks)
+        } finally {
+            release.countDown()
+        }
+        assertTrue(finished.await(5, TimeUnit.SECONDS))
+    }
+}
@@ -20,8 +20,12 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 
+import com.wultra.android.sslpinning.interfaces.CryptoProvider;
+import com.wultra.android.sslpinning.interfaces.ECPublicKey;
+import com.wultra.android.sslpinning.interfaces.SignedData;
 import com.wultra.android.sslpinning.model.GetFingerprintResponse;
 
+import org.jetbrains.annotations.NotNull;
 import org.junit.Test;
 
 import java.net.MalformedURLException;
@@ -116,6 +120,47 @@ public class CertStoreConfigurationTest extends CommonKotlinTest {
         assertEquals("Validate non-matching common name", ValidationResult.UNTRUSTED, result);
     }
 
+    @Test(expected = IllegalArgumentException.class)
+    public void testConfigurationWithInvalidPublicKey() throws Exception {
+        CertStoreConfiguration config = new CertStoreConfiguration.Builder(
+                new URL("https://foo.wultra.com"), "aaa".getBytes())
+                .build();
+        CryptoProvider rejectingProvider = new CryptoProvider() {
+            @Override
+            public boolean ecdsaValidateSignature(@NotNull SignedData signedData, @NotNull ECPublicKey publicKey) {
+                return false;
+            }
+
+            @Override
+            public ECPublicKey importECPublicKey(@NotNull byte[] publicKey) {
+                return null;
+            }
+
+            @NotNull
+            @Override
+            public byte[] hashSha256(@NotNull byte[] data) {
+                return cryptoProvider.hashSha256(data);
+            }
+
+            @NotNull
+            @Override
+            public byte[] getRandomData(int length) {
+                return new byte[length];
+            }
+        };
+        new CertStore(config, rejectingProvider, secureDataStore);
+    }
+
+    @Test
+    public void testConfigurationWithPublicKeyAcceptedByProvider() throws Exception {
+        // the key format is up to the crypto provider
+        CertStoreConfiguration config = new CertStoreConfiguration.Builder(
+                new URL("https://foo.wultra.com"), "aaa".getBytes())
+                .build();
+        CertStore store = new CertStore(config, cryptoProvider, secureDataStore);
+        assertNotNull(store);
+    }
+
     private CertStoreConfiguration configuration(Date expiration) throws MalformedURLException {
         if (expiration == null) {
             // create valid date
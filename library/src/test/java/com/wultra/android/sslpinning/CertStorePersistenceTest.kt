@@ -0,0 +1,62 @@
+/*
+ * Copyright 2026 Wultra s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package com.wultra.android.sslpinning
+
+import com.wultra.android.sslpinning.model.CachedData
+import com.wultra.android.sslpinning.model.CertificateInfo
+import io.mockk.every
+import io.mockk.verify
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertTrue
+import org.junit.Test
+import java.util.Date
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.TimeUnit
+
+/**
+ * Tests for persisting data during [CertStore.updateCachedData].
+ */
+class CertStorePersistenceTest : CommonKotlinTest() {
+
+    @Test
+    fun testSlowPersistenceDoesNotBlockValidation() {
+        val store = TestUtils.createCertStore(null, cryptoProvider, secureDataStore, handler)
+
+        val saveStarted = CountDownLatch(1)
+        val saveAllowed = CountDownLatch(1)
+        every { secureDataStore.save(any(), any()) } answers {
+            saveStarted.countDown()
+            saveAllowed.await(5, TimeUnit.SECONDS)
+            true
+        }
+
+        val info = CertificateInfo("github.com", ByteArray(32), Date(Date().time + 60_000))
+        val updateThread = Thread {
+            store.updateCachedData { CachedData(arrayOf(info), Date()) }
+        }
+        updateThread.start()
+        assertTrue(saveStarted.await(2, TimeUnit.SECONDS))
+
+        // data are published while the store is still being written
+        assertEquals(1, store.getCertificates().size)
+        assertEquals(ValidationResult.TRUSTED, store.validateFingerprint("github.com", ByteArray(32)))
+
+        saveAllowed.countDown()
+        updateThread.join(2000)
+        verify(exactly = 1) { secureDataStore.save(any(), any()) }
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright 2026 Wultra s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package com.wultra.android.sslpinning
+
+import com.wultra.android.sslpinning.model.CachedData
+import com.wultra.android.sslpinning.model.CertificateInfo
+import io.mockk.every
+import io.mockk.verify
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertTrue
+import org.junit.Test
+import java.util.Date
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.TimeUnit
+
+/**
+ * Tests for [CertStore.preload].
+ */
+class CertStorePreloadTest : CommonKotlinTest() {
+
+    @Test
+    fun testPreloadRestoresDataOnce() {
+        val store = TestUtils.createCertStore(null, cryptoProvider, secureDataStore, handler)
+
+        val future = store.preload()
+        future.get(2, TimeUnit.SECONDS)
+        assertTrue(future.isDone)
+        verify(exactly = 1) { secureDataStore.load(any()) }
+
+        // already loaded, completes immediately
+        assertTrue(store.preload().isDone)
+
+        val result = store.validateFingerprint("github.com", ByteArray(32))
+        assertEquals(ValidationResult.EMPTY, result)
+        verify(exactly = 1) { secureDataStore.load(any()) }
+    }
+
+    @Test
+    fun testNonBlockingValidationDoesNotWaitForData() {
+        val store = TestUtils.createCertStore(null, cryptoProvider, secureDataStore, handler)
+
+        val loadStarted = CountDownLatch(1)
+        val loadAllowed = CountDownLatch(1)
+        every { secureDataStore.load(any()) } answers {
+            loadStarted.countDown()
+            loadAllowed.await(5, TimeUnit.SECONDS)
+            null
+        }
+
+        // returns immediately while the data are loaded in the background
+        repeat(3) {
+            val verdict = store.verifyFingerprint("github.com", ByteArray(32), blocking = false)
+            assertEquals(ValidationResult.EMPTY, verdict.result)
+        }
+        assertTrue(loadStarted.await(2, TimeUnit.SECONDS))
+        loadAllowed.countDown()
+
+        store.preload().get(2, TimeUnit.SECONDS)
+        // the load is scheduled just once
+        verify(exactly = 1) { secureDataStore.load(any()) }
+    }
+
+    @Test
+    fun testSnapshotListenersAreNotifiedWithoutLock() {
+        val store = TestUtils.createCertStore(null, cryptoProvider, secureDataStore, handler)
+        val lockHeld = mutableListOf<Boolean>()
+        val generations = mutableListOf<Long>()
+        store.addSnapshotListener { snapshot ->
+            lockHeld.add(Thread.holdsLock(store))
+            generations.add(snapshot.generation)
+        }
+
+        store.preload().get(2, TimeUnit.SECONDS)
+        val info = CertificateInfo("github.com", ByteArray(32), Date(Date().time + 60_000))
+        store.updateCachedData { CachedData(arrayOf(info), Date()) }
+        // no change, no notification
+        store.updateCachedData { null }
+
+        assertEquals(listOf(false, false), lockHeld)
+        assertEquals(listOf(1L, 2L), generations)
+    }
+}
@@ -16,17 +16,25 @@
 package com.wultra.android.sslpinning
 
 import com.wultra.android.sslpinning.integration.DefaultUpdateObserver
+import com.wultra.android.sslpinning.interfaces.SignedData
+import com.wultra.android.sslpinning.model.GetFingerprintResponse
 import com.wultra.android.sslpinning.service.RemoteDataProvider
+import com.wultra.android.sslpinning.service.RemoteDataRequest
 import com.wultra.android.sslpinning.service.RemoteDataResponse
 import io.mockk.every
 import io.mockk.mockk
+import io.mockk.verify
 import org.junit.Assert
 import org.junit.Test
 import java.net.URL
 import java.util.Base64
+import java.util.Collections
 import java.util.Date
+import java.util.concurrent.ConcurrentHashMap
 import java.util.concurrent.CountDownLatch
+import java.util.concurrent.Executors
 import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicInteger
 
 /**
  * Unit tests for [CertStore] updates.
@@ -156,6 +164,284 @@ class CertStoreUpdateTest : CommonKotlinTest() {
         Assert.assertTrue(latch.await(2, TimeUnit.SECONDS))
     }
 
+    @Test
+    @Throws(Exception::class)
+    fun testConditionalUpdateNotModified() {
+        every { cryptoProvider.ecdsaValidateSignature(any(), any()) } returns true
+
+        val publicKeyBytes = Base64.getDecoder().decode(
+            "BC3kV9OIDnMuVoCdDR9nEA/JidJLTTDLuSA2TSZsGgODSshfbZg31MS90WC/HdbU/A5WL5GmyDkE/iks6INv+XE=")
+        val config = TestUtils.getCertStoreConfiguration(
+            Date(), arrayOf("github.com"),
+            URL("https://gist.githubusercontent.com/"),
+            publicKeyBytes,
+            null
+        )
+        val remoteDataProvider: RemoteDataProvider = mockk()
+        val jsonData = """{
+  "fingerprints": [
+    {
+      "name" : "github.com",
+      "fingerprint" : "kqN/vV4hpTqVxxbhFE9EL1grlND6/Gc+tnF6TrUaiKc=",
+      "expires" : 4102444800,
+      "signature" : "MEUCICB69UpMPOdtrsR6XcJqHEh2L2RO4oSJ3SZ7BYnTBJbGAiEAnZ7rEWdMVGwa59Wx5QbAorEFxXH89Iu0CnqWa96Eda0="
+    }
+  ]
+}"""
+        val requests = mutableListOf<RemoteDataRequest>()
+        every { remoteDataProvider.getFingerprints(capture(requests)) } answers {
+            if (requests.last().requestHeaders["If-None-Match"] == "\"v1\"") {
+                RemoteDataResponse(304, emptyMap(), ByteArray(0))
+            } else {
+                RemoteDataResponse(200, mapOf("etag" to "\"v1\""), jsonData.toByteArray())
+            }
+        }
+        val store = CertStore(config, cryptoProvider, secureDataStore, remoteDataProvider)
+        TestUtils.assignHandler(store, handler)
+
+        TestUtils.updateAndCheck(store, UpdateMode.FORCED, UpdateResult.OK)
+        Assert.assertTrue(requests[0].requestHeaders.isEmpty())
+        val certificates = store.getCertificates()
+
+        TestUtils.updateAndCheck(store, UpdateMode.FORCED, UpdateResult.OK)
+        Assert.assertEquals("\"v1\"", requests[1].requestHeaders["If-None-Match"])
+        Assert.assertArrayEquals(certificates, store.getCertificates())
+        // nothing is verified for the unchanged data
+        verify(exactly = 1) { cryptoProvider.ecdsaValidateSignature(any(), any()) }
+        verify(exactly = 2) { secureDataStore.save(any(), any()) }
+    }
+
+    @Test
+    @Throws(Exception::class)
+    fun testManyEntriesUpdate() {
+        every { cryptoProvider.ecdsaValidateSignature(any(), any()) } returns true
+
+        val store = createStoreWithEntries(40)
+        TestUtils.updateAndCheck(store, UpdateMode.FORCED, UpdateResult.OK)
+        Assert.assertEquals(40, store.getCertificates().size)
+        verify(exactly = 40) { cryptoProvider.ecdsaValidateSignature(any(), any()) }
+    }
+
+    @Test
+    @Throws(Exception::class)
+    fun testManyEntriesWithInvalidSignatureUpdate() {
+        every { cryptoProvider.ecdsaValidateSignature(any(), any()) } answers {
+            val signedData = String(firstArg<SignedData>().data)
+            !signedData.startsWith("host25.example.com&") && !signedData.startsWith("host31.example.com&")
+        }
+
+        val store = createStoreWithEntries(40)
+        TestUtils.updateAndCheck(store, UpdateMode.FORCED, UpdateResult.INVALID_SIGNATURE)
+        Assert.assertEquals(0, store.getCertificates().size)
+    }
+
+    @Test
+    @Throws(Exception::class)
+    fun testVerifiedEntriesAreNotVerifiedAgain() {
+        val invalidNames = mutableSetOf<String>()
+        val verifications = ConcurrentHashMap<String, Int>()
+        every { cryptoProvider.ecdsaValidateSignature(any(), any()) } answers {
+            val name = String(firstArg<SignedData>().data).substringBefore('&')
+            verifications.merge(name, 1, Int::plus)
+            !invalidNames.contains(name)
+        }
+        var count = 10
+        val store = createStoreWithEntries { count }
+
+        TestUtils.updateAndCheck(store, UpdateMode.FORCED, UpdateResult.OK)
+        // the update fails, but the entries verified before the failure are remembered
+        count = 40
+        invalidNames.add("host25.example.com")
+        TestUtils.updateAndCheck(store, UpdateMode.FORCED, UpdateResult.INVALID_SIGNATURE)
+        Assert.assertEquals(10, store.getCertificates().size)
+
+        invalidNames.clear()
+        TestUtils.updateAndCheck(store, UpdateMode.FORCED, UpdateResult.OK)
+        Assert.assertEquals(40, store.getCertificates().size)
+        Assert.assertEquals(40, verifications.size)
+        verifications.forEach { (name, verified) ->
+            Assert.assertEquals(name, if (name == "host25.example.com") 2 else 1, verified)
+        }
+        // the public key is imported just once
+        verify(exactly = 1) { cryptoProvider.importECPublicKey(any()) }
+    }
+
+    @Test
+    fun testVerificationDigestDependsOnPublicKey() {
+        val entry = GetFingerprintResponse.Entry("github.com", ByteArray(32), Date(4102444800000), ByteArray(8))
+        val digest = entry.verificationDigest(byteArrayOf(1, 2, 3))
+        Assert.assertNotNull(digest)
+        Assert.assertEquals(digest, entry.copy().verificationDigest(byteArrayOf(1, 2, 3)))
+        Assert.assertNotEquals(digest, entry.verificationDigest(byteArrayOf(1, 2, 4)))
+        Assert.assertNotEquals(digest, entry.copy(signature = ByteArray(8) { 1 }).verificationDigest(byteArrayOf(1, 2, 3)))
+        Assert.assertNull(entry.copy(signature = null).verificationDigest(byteArrayOf(1, 2, 3)))
+    }
+
+    @Test
+    @Throws(Exception::class)
+    fun testConcurrentUpdatesShareFetch() {
+        every { cryptoProvider.ecdsaValidateSignature(any(), any()) } returns true
+
+        val fetchStarted = CountDownLatch(1)
+        val releaseFetch = CountDownLatch(1)
+        val fetches = AtomicInteger()
+        val publicKeyBytes = Base64.getDecoder().decode(
+            "BC3kV9OIDnMuVoCdDR9nEA/JidJLTTDLuSA2TSZsGgODSshfbZg31MS90WC/HdbU/A5WL5GmyDkE/iks6INv+XE=")
+        val config = TestUtils.getCertStoreConfiguration(
+            Date(), null, URL("https://gist.githubusercontent.com/"), publicKeyBytes, null)
+        val remoteDataProvider: RemoteDataProvider = mockk()
+        every { remoteDataProvider.getFingerprints(any()) } answers {
+            fetches.incrementAndGet()
+            fetchStarted.countDown()
+            releaseFetch.await(5, TimeUnit.SECONDS)
+            val jsonData = """{"fingerprints":[{"name":"github.com","fingerprint":"kqN/vV4hpTqVxxbhFE9EL1grlND6/Gc+tnF6TrUaiKc=","expires":4102444800,"signature":"AAAA"}]}"""
+            RemoteDataResponse(200, emptyMap(), jsonData.toByteArray())
+        }
+        val store = CertStore(config, cryptoProvider, secureDataStore, remoteDataProvider)
+        TestUtils.assignHandler(store, handler)
+
+        val results = Collections.synchronizedList(mutableListOf<UpdateResult>())
+        val finished = CountDownLatch(4)
+        val observer = object : UpdateObserver {
+            override fun onUpdateStarted(type: UpdateType) {
+            }
+
+            override fun onUpdateFinished(type: UpdateType, result: UpdateResult) {
+                results.add(result)
+                finished.countDown()
+            }
+        }
+
+        store.update(UpdateMode.FORCED, observer)
+        Assert.assertTrue(fetchStarted.await(5, TimeUnit.SECONDS))
+        // joins the fetch in progress
+        store.update(UpdateMode.DEFAULT, observer)
+        // both wait for a single new fetch
+        store.update(UpdateMode.FORCED, observer)
+        store.update(UpdateMode.FORCED, observer)
+        releaseFetch.countDown()
+
+        Assert.assertTrue(finished.await(5, TimeUnit.SECONDS))
+        Assert.assertEquals(listOf(UpdateResult.OK, UpdateResult.OK, UpdateResult.OK, UpdateResult.OK), results)
+        Assert.assertEquals(2, fetches.get())
+    }
+
+    @Test
+    @Throws(Exception::class)
+    fun testFailedUpdateNotifiesAllObservers() {
+        every { cryptoProvider.ecdsaValidateSignature(any(), any()) } throws IllegalStateException("Broken crypto")
+
+        val fetchStarted = CountDownLatch(1)
+        val releaseFetch = CountDownLatch(1)
+        val publicKeyBytes = Base64.getDecoder().decode(
+            "BC3kV9OIDnMuVoCdDR9nEA/JidJLTTDLuSA2TSZsGgODSshfbZg31MS90WC/HdbU/A5WL5GmyDkE/iks6INv+XE=")
+        val config = TestUtils.getCertStoreConfiguration(
+            Date(), null, URL("https://gist.githubusercontent.com/"), publicKeyBytes, null)
+        val remoteDataProvider: RemoteDataProvider = mockk()
+        every { remoteDataProvider.getFingerprints(any()) } answers {
+            fetchStarted.countDown()
+            releaseFetch.await(5, TimeUnit.SECONDS)
+            val jsonData = """{"fingerprints":[{"name":"github.com","fingerprint":"kqN/vV4hpTqVxxbhFE9EL1grlND6/Gc+tnF6TrUaiKc=","expires":4102444800,"signature":"AAAA"}]}"""
+            RemoteDataResponse(200, emptyMap(), jsonData.toByteArray())
+        }
+        val store = CertStore(config, cryptoProvider, secureDataStore, remoteDataProvider)
+        TestUtils.assignHandler(store, handler)
+
+        val results = Collections.synchronizedList(mutableListOf<UpdateResult>())
+        val finished = CountDownLatch(2)
+        val observer = object : UpdateObserver {
+            override fun onUpdateStarted(type: UpdateType) {
+            }
+
+            override fun onUpdateFinished(type: UpdateType, result: UpdateResult) {
+                results.add(result)
+                finished.countDown()
+            }
+        }
+
+        store.update(UpdateMode.FORCED, observer)
+        Assert.assertTrue(fetchStarted.await(5, TimeUnit.SECONDS))
+        // joins the failing fetch
+        store.update(UpdateMode.DEFAULT, observer)
+        releaseFetch.countDown()
+
+        Assert.assertTrue(finished.await(5, TimeUnit.SECONDS))
+        Assert.assertEquals(listOf(UpdateResult.INVALID_DATA, UpdateResult.INVALID_DATA), results)
+
+        // the failed update doesn't block the next one
+        every { cryptoProvider.ecdsaValidateSignature(any(), any()) } returns true
+        val nextFinished = CountDownLatch(1)
+        store.update(UpdateMode.FORCED, object : UpdateObserver {
+            override fun onUpdateStarted(type: UpdateType) {
+            }
+
+            override fun onUpdateFinished(type: UpdateType, result: UpdateResult) {
+                results.add(result)
+                nextFinished.countDown()
+            }
+        })
+        Assert.assertTrue(nextFinished.await(5, TimeUnit.SECONDS))
+        Assert.assertEquals(UpdateResult.OK, results.last())
+    }
+
+    @Test
+    @Throws(Exception::class)
+    fun testRejectedUpdateNotifiesObservers() {
+        val executor = Executors.newSingleThreadExecutor()
+        executor.shutdown()
+        val publicKeyBytes = Base64.getDecoder().decode(
+            "BC3kV9OIDnMuVoCdDR9nEA/JidJLTTDLuSA2TSZsGgODSshfbZg31MS90WC/HdbU/A5WL5GmyDkE/iks6INv+XE=")
+        val config = CertStoreConfiguration.Builder(URL("https://gist.githubusercontent.com/"), publicKeyBytes)
+            .executorService(executor)
+            .build()
+        val remoteDataProvider: RemoteDataProvider = mockk()
+        val store = CertStore(config, cryptoProvider, secureDataStore, remoteDataProvider)
+        TestUtils.assignHandler(store, handler)
+
+        val results = mutableListOf<UpdateResult>()
+        val observer = object : UpdateObserver {
+            override fun onUpdateStarted(type: UpdateType) {
+            }
+
+            override fun onUpdateFinished(type: UpdateType, result: UpdateResult) {
+                results.add(result)
+            }
+        }
+
+        // the next update doesn't wait for the rejected one
+        store.update(UpdateMode.FORCED, observer)
+        store.update(UpdateMode.FORCED, observer)
+        Assert.assertEquals(listOf(UpdateResult.INVALID_DATA, UpdateResult.INVALID_DATA), results)
+        verify(exactly = 0) { remoteDataProvider.getFingerprints(any()) }
+    }
+
+    private fun createStoreWithEntries(count: Int): CertStore {
+        return createStoreWithEntries { count }
+    }
+
+    private fun createStoreWithEntries(count: () -> Int): CertStore {
+        val publicKeyBytes = Base64.getDecoder().decode(
+            "BC3kV9OIDnMuVoCdDR9nEA/JidJLTTDLuSA2TSZsGgODSshfbZg31MS90WC/HdbU/A5WL5GmyDkE/iks6INv+XE=")
+        val config = TestUtils.getCertStoreConfiguration(
+            Date(), null,
+            URL("https://gist.githubusercontent.com/"),
+            publicKeyBytes,
+            null
+        )
+        val remoteDataProvider: RemoteDataProvider = mockk()
+        every { remoteDataProvider.getFingerprints(any()) } answers {
+            val entries = (0 until count()).joinToString(",") { index ->
+                val fingerprint = Base64.getEncoder().encodeToString(ByteArray(32) { index.toByte() })
+                """{"name":"host$index.example.com","fingerprint":"$fingerprint","expires":4102444800,"signature":"AAAA"}"""
+            }
+            val jsonData = """{"fingerprints":[$entries]}"""
+            RemoteDataResponse(200, emptyMap(), jsonData.toByteArray())
+        }
+        val store = CertStore(config, cryptoProvider, secureDataStore, remoteDataProvider)
+        TestUtils.assignHandler(store, handler)
+        return store
+    }
+
     @Throws(Exception::class)
     private fun performForcedUpdate(
         publicKey: String,
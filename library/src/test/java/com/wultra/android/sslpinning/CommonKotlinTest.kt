@@ -22,14 +22,17 @@ import android.os.Handler
 import android.os.Looper
 import android.util.Base64
 import android.util.Log
+import com.wultra.android.sslpinning.integration.powerauth.PowerAuthCryptoProvider
 import com.wultra.android.sslpinning.interfaces.CryptoProvider
 import com.wultra.android.sslpinning.interfaces.SecureDataStore
 import com.wultra.android.sslpinning.interfaces.SignedData
 import io.getlime.security.powerauth.crypto.lib.util.KeyConvertor
 import io.getlime.security.powerauth.crypto.lib.util.SignatureUtils
 import io.mockk.MockKAnnotations
+import io.mockk.anyConstructed
 import io.mockk.every
 import io.mockk.impl.annotations.MockK
+import io.mockk.mockkConstructor
 import io.mockk.mockkStatic
 import io.mockk.unmockkAll
 import org.bouncycastle.jce.provider.BouncyCastleProvider
@@ -114,6 +117,12 @@ open class CommonKotlinTest {
                 keyConvertor.convertBytesToPublicKey(pubKey.data))
         }
 
+        // PowerAuth imports the key in native code, which is not available in unit tests
+        mockkConstructor(PowerAuthCryptoProvider::class)
+        every { anyConstructed<PowerAuthCryptoProvider>().importECPublicKey(any()) } answers {
+            TestPA2ECPublicKey(it.invocation.args[0] as ByteArray)
+        }
+
         every { secureDataStore.load(any()) } returns null
         every { secureDataStore.save(any(), any()) } returns false
 
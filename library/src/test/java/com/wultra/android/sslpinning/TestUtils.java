@@ -18,6 +18,8 @@ package com.wultra.android.sslpinning;
 
 import android.os.Handler;
 
+import com.wultra.android.sslpinning.interfaces.CryptoProvider;
+import com.wultra.android.sslpinning.interfaces.SecureDataStore;
 import com.wultra.android.sslpinning.model.GetFingerprintResponse;
 
 import org.jetbrains.annotations.NotNull;
@@ -28,6 +30,7 @@ import java.net.HttpURLConnection;
 import java.net.URL;
 import java.security.cert.Certificate;
 import java.security.cert.X509Certificate;
+import java.util.Base64;
 import java.util.Date;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
@@ -43,6 +46,11 @@ import static org.junit.Assert.assertTrue;
  * @author Tomas Kypta, tomas.kypta@wultra.com
  */
 public class TestUtils {
+    /**
+     * Public key of stores created with {@link #createCertStore}.
+     */
+    public static final String TEST_PUBLIC_KEY = "BEG6g28LNWRcmdFzexSNTKPBYZnDtKrCyiExFKbktttfKAF7wG4Cx1Nycr5PwCoICG1dRseLyuDxUilAmppPxAo=";
+
     public static X509Certificate getCertificateFromUrl(String urlString) throws IOException {
         URL url = new URL(urlString);
         HttpURLConnection httpURLConnection = (HttpURLConnection) url.openConnection();
@@ -65,6 +73,17 @@ public class TestUtils {
         return builder.build();
     }
 
+    public static CertStore createCertStore(String[] expectedCommonNames, CryptoProvider cryptoProvider, SecureDataStore secureDataStore, Handler handler) throws Exception {
+        CertStoreConfiguration config = getCertStoreConfiguration(
+                new Date(), expectedCommonNames,
+                new URL("https://foo.wultra.com"),
+                Base64.getDecoder().decode(TEST_PUBLIC_KEY),
+                null);
+        CertStore store = new CertStore(config, cryptoProvider, secureDataStore);
+        assignHandler(store, handler);
+        return store;
+    }
+
     public static void assignHandler(CertStore certStore, Handler handler) throws Exception {
         Field handlerField = CertStore.class.getDeclaredField("mainThreadHandler");
         handlerField.setAccessible(true);
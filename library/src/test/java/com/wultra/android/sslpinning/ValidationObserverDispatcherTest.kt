@@ -0,0 +1,125 @@
+/*
+ * Copyright 2026 Wultra s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package com.wultra.android.sslpinning
+
+import io.mockk.every
+import io.mockk.just
+import io.mockk.mockk
+import io.mockk.runs
+import io.mockk.slot
+import io.mockk.verify
+import org.junit.Assert.assertTrue
+import org.junit.Test
+import java.util.concurrent.CopyOnWriteArraySet
+import java.util.concurrent.Executor
+
+/**
+ * Tests for [ValidationObserverDispatcher].
+ */
+class ValidationObserverDispatcherTest : CommonKotlinTest() {
+
+    @Test
+    fun testMainThreadPostsOncePerResult() {
+        val observers = CopyOnWriteArraySet(listOf(mockkValidationObserver(), mockkValidationObserver()))
+        val dispatcher = ValidationObserverDispatcher.mainThread()
+
+        dispatcher.dispatch(handler, observers, "github.com", ValidationResult.UNTRUSTED)
+
+        verify(exactly = 1) { handler.post(any()) }
+        observers.forEach {
+            verify(exactly = 1) { it.onValidationUntrusted("github.com") }
+        }
+    }
+
+    @Test
+    fun testExecutor() {
+        val observer = mockkValidationObserver()
+        val commands = mutableListOf<Runnable>()
+        val dispatcher = ValidationObserverDispatcher.executor(Executor { commands.add(it) })
+
+        dispatcher.dispatch(handler, setOf(observer), "github.com", ValidationResult.TRUSTED)
+        verify(exactly = 0) { observer.onValidationTrusted(any()) }
+        verify(exactly = 0) { handler.post(any()) }
+
+        commands.forEach { it.run() }
+        verify(exactly = 1) { observer.onValidationTrusted("github.com") }
+    }
+
+    @Test
+    fun testBatchedCoalescesResults() {
+        val observer = mockkValidationObserver()
+        val observers = setOf(observer)
+        val flush = slot<Runnable>()
+        every { handler.postDelayed(capture(flush), 500) } returns true
+        val dispatcher = ValidationObserverDispatcher.batched(500)
+
+        repeat(10) {
+            dispatcher.dispatch(handler, observers, "github.com", ValidationResult.EMPTY)
+            dispatcher.dispatch(handler, observers, "wultra.com", ValidationResult.EMPTY)
+        }
+        dispatcher.dispatch(handler, observers, "github.com", ValidationResult.UNTRUSTED)
+
+        verify(exactly = 1) { handler.postDelayed(any(), 500) }
+        verify(exactly = 0) { observer.onValidationEmpty(any()) }
+
+        assertTrue(flush.isCaptured)
+        flush.captured.run()
+        verify(exactly = 1) {
+            observer.onValidationEmpty("github.com")
+            observer.onValidationEmpty("wultra.com")
+            observer.onValidationUntrusted("github.com")
+        }
+
+        // next result starts a new interval
+        dispatcher.dispatch(handler, observers, "github.com", ValidationResult.EMPTY)
+        verify(exactly = 2) { handler.postDelayed(any(), 500) }
+    }
+
+    @Test
+    fun testBatchedResultDuringFlushSchedulesNextFlush() {
+        val observer = mockkValidationObserver()
+        val observers = setOf(observer)
+        val flushes = mutableListOf<Runnable>()
+        every { handler.postDelayed(capture(flushes), 500) } returns true
+        val dispatcher = ValidationObserverDispatcher.batched(500)
+        every { observer.onValidationEmpty("github.com") } answers {
+            dispatcher.dispatch(handler, observers, "github.com", ValidationResult.UNTRUSTED)
+        }
+
+        dispatcher.dispatch(handler, observers, "github.com", ValidationResult.EMPTY)
+        flushes[0].run()
+        verify(exactly = 1) { observer.onValidationEmpty("github.com") }
+        verify(exactly = 0) { observer.onValidationUntrusted(any()) }
+
+        verify(exactly = 2) { handler.postDelayed(any(), 500) }
+        flushes[1].run()
+        verify(exactly = 1) { observer.onValidationUntrusted("github.com") }
+    }
+
+    @Test(expected = IllegalArgumentException::class)
+    fun testBatchedNegativeInterval() {
+        ValidationObserverDispatcher.batched(-1)
+    }
+
+    private fun mockkValidationObserver(): ValidationObserver {
+        val observer: ValidationObserver = mockk()
+        every { observer.onValidationEmpty(any()) } just runs
+        every { observer.onValidationTrusted(any()) } just runs
+        every { observer.onValidationUntrusted(any()) } just runs
+        return observer
+    }
+}
@@ -17,6 +17,8 @@
 package com.wultra.android.sslpinning
 
 import com.wultra.android.sslpinning.TestUtils.assignHandler
+import com.wultra.android.sslpinning.model.CachedData
+import com.wultra.android.sslpinning.model.CertificateInfo
 import io.mockk.every
 import io.mockk.just
 import io.mockk.mockk
@@ -35,6 +37,35 @@ import java.util.*
  */
 class ValidationObserverTest : CommonKotlinTest() {
 
+    @Test
+    fun testStatisticsOfPinnedCommonNames() {
+        val store = TestUtils.createCertStore(null, cryptoProvider, secureDataStore, handler)
+        val info = CertificateInfo("github.com", ByteArray(32), Date(Date().time + 60_000))
+        store.updateCachedData { CachedData(arrayOf(info), Date()) }
+
+        assertEquals(ValidationResult.TRUSTED, store.validateFingerprint("github.com", ByteArray(32)))
+        assertEquals(ValidationResult.EMPTY, store.validateFingerprint("unknown1.com", ByteArray(32)))
+        assertEquals(ValidationResult.EMPTY, store.validateFingerprint("unknown2.com", ByteArray(32)))
+
+        val statistics = store.getValidationStatistics()
+        assertEquals(2, statistics.size)
+        assertEquals(ValidationStatistics(1, 0, 0), statistics["github.com"])
+        assertEquals(ValidationStatistics(0, 0, 2), statistics[ValidationStatistics.OTHER_COMMON_NAMES])
+    }
+
+    @Test
+    fun testStatisticsOfExpectedCommonNames() {
+        val store = TestUtils.createCertStore(arrayOf("github.com"), cryptoProvider, secureDataStore, handler)
+
+        // pinned by the configuration even before any data are loaded
+        assertEquals(ValidationResult.EMPTY, store.validateFingerprint("github.com", ByteArray(32)))
+        assertEquals(ValidationResult.UNTRUSTED, store.validateFingerprint("google.com", ByteArray(32)))
+
+        val statistics = store.getValidationStatistics()
+        assertEquals(ValidationStatistics(0, 0, 1), statistics["github.com"])
+        assertEquals(ValidationStatistics(0, 1, 0), statistics[ValidationStatistics.OTHER_COMMON_NAMES])
+    }
+
     @Test
     fun testValidationObservers() {
         val cert = TestUtils.getCertificateFromUrl("https://github.com")
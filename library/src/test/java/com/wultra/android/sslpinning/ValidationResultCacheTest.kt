@@ -0,0 +1,60 @@
+/*
+ * Copyright 2026 Wultra s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package com.wultra.android.sslpinning
+
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertNull
+import org.junit.Test
+
+/**
+ * Tests for [ValidationResultCache].
+ */
+class ValidationResultCacheTest {
+
+    @Test
+    fun testResultForSameGeneration() {
+        val cache = ValidationResultCache()
+        cache.put("github.com", byteArrayOf(1, 2), ValidationVerdict(ValidationResult.TRUSTED, 1, 1000))
+        assertEquals(ValidationResult.TRUSTED, cache.getVerdict("github.com", byteArrayOf(1, 2), 1, 999)?.result)
+        assertNull(cache.getVerdict("github.com", byteArrayOf(1, 3), 1, 999))
+        assertNull(cache.getVerdict("wultra.com", byteArrayOf(1, 2), 1, 999))
+    }
+
+    @Test
+    fun testGenerationChangeInvalidatesResult() {
+        val cache = ValidationResultCache()
+        cache.put("github.com", byteArrayOf(1, 2), ValidationVerdict(ValidationResult.UNTRUSTED, 1, Long.MAX_VALUE))
+        assertNull(cache.getVerdict("github.com", byteArrayOf(1, 2), 2, 0))
+    }
+
+    @Test
+    fun testExpiredResult() {
+        val cache = ValidationResultCache()
+        cache.put("github.com", byteArrayOf(1, 2), ValidationVerdict(ValidationResult.TRUSTED, 1, 1000))
+        assertNull(cache.getVerdict("github.com", byteArrayOf(1, 2), 1, 1000))
+    }
+
+    @Test
+    fun testFingerprintIsCopied() {
+        val cache = ValidationResultCache()
+        val fingerprint = byteArrayOf(1, 2)
+        cache.put("github.com", fingerprint, ValidationVerdict(ValidationResult.TRUSTED, 1, Long.MAX_VALUE))
+        fingerprint[0] = 5
+        assertEquals(ValidationResult.TRUSTED, cache.getVerdict("github.com", byteArrayOf(1, 2), 1, 0)?.result)
+        assertNull(cache.getVerdict("github.com", fingerprint, 1, 0))
+    }
+}
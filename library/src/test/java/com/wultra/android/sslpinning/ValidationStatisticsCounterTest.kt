@@ -0,0 +1,87 @@
+/*
+ * Copyright 2026 Wultra s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package com.wultra.android.sslpinning
+
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertTrue
+import org.junit.Test
+import kotlin.concurrent.thread
+
+/**
+ * Tests for [ValidationStatisticsCounter].
+ */
+class ValidationStatisticsCounterTest {
+
+    @Test
+    fun testCountsPerCommonName() {
+        val counter = ValidationStatisticsCounter()
+        assertTrue(counter.snapshot(false).isEmpty())
+
+        counter.increment("github.com", ValidationResult.TRUSTED, true)
+        counter.increment("github.com", ValidationResult.TRUSTED, true)
+        counter.increment("github.com", ValidationResult.UNTRUSTED, true)
+        counter.increment("wultra.com", ValidationResult.EMPTY, true)
+
+        val statistics = counter.snapshot(false)
+        assertEquals(2, statistics.size)
+        assertEquals(ValidationStatistics(2, 1, 0), statistics["github.com"])
+        assertEquals(ValidationStatistics(0, 0, 1), statistics["wultra.com"])
+        assertEquals(3, statistics.getValue("github.com").total)
+    }
+
+    @Test
+    fun testSnapshotAndReset() {
+        val counter = ValidationStatisticsCounter()
+        counter.increment("github.com", ValidationResult.TRUSTED, true)
+
+        assertEquals(ValidationStatistics(1, 0, 0), counter.snapshot(true)["github.com"])
+        assertTrue(counter.snapshot(false).isEmpty())
+
+        counter.increment("github.com", ValidationResult.EMPTY, true)
+        assertEquals(ValidationStatistics(0, 0, 1), counter.snapshot(true)["github.com"])
+    }
+
+    @Test
+    fun testNamesNotPinnedAreCountedTogether() {
+        val counter = ValidationStatisticsCounter()
+        counter.increment("github.com", ValidationResult.TRUSTED, true)
+        repeat(100) { counter.increment("host$it.com", ValidationResult.UNTRUSTED, false) }
+        counter.increment("github.com", ValidationResult.UNTRUSTED, true)
+
+        val statistics = counter.snapshot(true)
+        assertEquals(2, statistics.size)
+        assertEquals(ValidationStatistics(1, 1, 0), statistics["github.com"])
+        assertEquals(ValidationStatistics(0, 100, 0), statistics[ValidationStatistics.OTHER_COMMON_NAMES])
+    }
+
+    @Test
+    fun testConcurrentIncrementsAreNotLost() {
+        val counter = ValidationStatisticsCounter()
+        val threads = (1..4).map {
+            thread {
+                repeat(10_000) { counter.increment("github.com", ValidationResult.TRUSTED, true) }
+            }
+        }
+        var total = 0L
+        while (threads.any { it.isAlive }) {
+            total += counter.snapshot(true)["github.com"]?.trusted ?: 0
+        }
+        threads.forEach { it.join() }
+        total += counter.snapshot(true)["github.com"]?.trusted ?: 0
+        assertEquals(40_000, total)
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright 2026 Wultra s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package com.wultra.android.sslpinning.integration
+
+import io.mockk.every
+import io.mockk.just
+import io.mockk.mockk
+import io.mockk.runs
+import io.mockk.verify
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertSame
+import org.junit.Assert.fail
+import org.junit.Test
+import java.security.cert.CertificateException
+import java.security.cert.X509Certificate
+import javax.net.ssl.X509TrustManager
+
+/**
+ * Tests for [CompositeX509TrustManager].
+ */
+class CompositeX509TrustManagerTest {
+
+    private val chain = arrayOf<X509Certificate>(mockk())
+
+    @Test
+    fun testPinningFailureSkipsPlatformValidation() {
+        val pinning = trustManager(CertificateException("pinning"))
+        val platform = trustManager(null)
+        val composite = CompositeX509TrustManager(pinning, platform, CompositeX509TrustManager.Order.PINNING_FIRST, true)
+
+        assertEquals("pinning", checkServerTrustedFailure(composite).message)
+        verify(exactly = 0) { platform.checkServerTrusted(any(), any()) }
+    }
+
+    @Test
+    fun testBothValidationsRunWhenTrusted() {
+        val pinning = trustManager(null)
+        val platform = trustManager(null)
+        val composite = CompositeX509TrustManager(pinning, platform, CompositeX509TrustManager.Order.PINNING_FIRST, true)
+
+        composite.checkServerTrusted(chain, "RSA")
+        verify(exactly = 1) {
+            pinning.checkServerTrusted(chain, "RSA")
+            platform.checkServerTrusted(chain, "RSA")
+        }
+    }
+
+    @Test
+    fun testPlatformFirst() {
+        val pinning = trustManager(null)
+        val platform = trustManager(CertificateException("platform"))
+        val composite = CompositeX509TrustManager(pinning, platform, CompositeX509TrustManager.Order.PLATFORM_FIRST, true)
+
+        assertEquals("platform", checkServerTrustedFailure(composite).message)
+        verify(exactly = 0) { pinning.checkServerTrusted(any(), any()) }
+    }
+
+    @Test
+    fun testNoFailFastRunsBothAndReportsFirstFailure() {
+        val pinningFailure = CertificateException("pinning")
+        val platformFailure = CertificateException("platform")
+        val pinning = trustManager(pinningFailure)
+        val platform = trustManager(platformFailure)
+        val composite = CompositeX509TrustManager(pinning, platform, CompositeX509TrustManager.Order.PINNING_FIRST, false)
+
+        val failure = checkServerTrustedFailure(composite)
+        assertSame(pinningFailure, failure)
+        assertSame(platformFailure, failure.suppressed[0])
+        verify(exactly = 1) { platform.checkServerTrusted(chain, "RSA") }
+    }
+
+    @Test
+    fun testNoFailFastReportsSecondFailure() {
+        val pinning = trustManager(null)
+        val platform = trustManager(CertificateException("platform"))
+        val composite = CompositeX509TrustManager(pinning, platform, CompositeX509TrustManager.Order.PINNING_FIRST, false)
+
+        assertEquals("platform", checkServerTrustedFailure(composite).message)
+    }
+
+    private fun checkServerTrustedFailure(trustManager: X509TrustManager): CertificateException {
+        try {
+            trustManager.checkServerTrusted(chain, "RSA")
+        } catch (e: CertificateException) {
+            return e
+        }
+        fail("Certificate chain should not be trusted")
+        throw IllegalStateException()
+    }
+
+    private fun trustManager(failure: CertificateException?): X509TrustManager {
+        val trustManager: X509TrustManager = mockk()
+        if (failure != null) {
+            every { trustManager.checkServerTrusted(any(), any()) } throws failure
+        } else {
+            every { trustManager.checkServerTrusted(any(), any()) } just runs
+        }
+        return trustManager
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright 2026 Wultra s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package com.wultra.android.sslpinning.integration
+
+import com.wultra.android.sslpinning.CertStore
+import com.wultra.android.sslpinning.CommonKotlinTest
+import com.wultra.android.sslpinning.TestUtils
+import com.wultra.android.sslpinning.model.CachedData
+import com.wultra.android.sslpinning.model.CertificateInfo
+import io.mockk.every
+import io.mockk.just
+import io.mockk.mockk
+import io.mockk.runs
+import io.mockk.verify
+import org.junit.Assert.assertSame
+import org.junit.Assert.fail
+import org.junit.Test
+import java.net.Socket
+import java.util.Date
+import javax.net.ssl.SSLHandshakeException
+import javax.net.ssl.SSLSocket
+import javax.net.ssl.SSLSocketFactory
+
+/**
+ * Tests for [PinnedHostSSLSocketFactory].
+ */
+class PinnedHostSSLSocketFactoryTest : CommonKotlinTest() {
+
+    private val pinnedSocket: SSLSocket = mockk()
+    private val bypassSocket: SSLSocket = mockk()
+
+    @Test
+    fun testPinnedHostIsConnected() {
+        val factory = PinnedHostSSLSocketFactory(createStore(null), delegate(), PinnedHostSSLSocketFactory.Policy.REJECT, bypass())
+        assertSame(pinnedSocket, factory.createSocket("github.com", 443))
+        assertSame(pinnedSocket, factory.createSocket("api.wultra.com", 443))
+    }
+
+    @Test(expected = SSLHandshakeException::class)
+    fun testHostWithoutPinsIsRejected() {
+        val delegate = delegate()
+        val factory = PinnedHostSSLSocketFactory(createStore(null), delegate, PinnedHostSSLSocketFactory.Policy.REJECT, bypass())
+        try {
+            factory.createSocket("google.com", 443)
+        } finally {
+            verify(exactly = 0) { delegate.createSocket(any<String>(), any()) }
+        }
+    }
+
+    @Test(expected = SSLHandshakeException::class)
+    fun testUnexpectedHostIsRejected() {
+        val factory = PinnedHostSSLSocketFactory(createStore(arrayOf("github.com")), delegate(), PinnedHostSSLSocketFactory.Policy.REJECT, bypass())
+        factory.createSocket("api.wultra.com", 443)
+    }
+
+    @Test(expected = SSLHandshakeException::class)
+    fun testHostWithExpiredPinsIsRejected() {
+        val factory = PinnedHostSSLSocketFactory(createStore(null), delegate(), PinnedHostSSLSocketFactory.Policy.REJECT, bypass())
+        factory.createSocket("expired.com", 443)
+    }
+
+    @Test
+    fun testLayeredSocketIsClosedOnReject() {
+        val delegate = delegate()
+        val factory = PinnedHostSSLSocketFactory(createStore(null), delegate, PinnedHostSSLSocketFactory.Policy.REJECT, bypass())
+        val plainSocket: Socket = mockk()
+        every { plainSocket.close() } just runs
+        try {
+            factory.createSocket(plainSocket, "google.com", 443, true)
+            fail("Host without pins must be rejected")
+        } catch (e: SSLHandshakeException) {
+            // expected
+        }
+        verify(exactly = 1) { plainSocket.close() }
+        verify(exactly = 0) { delegate.createSocket(any<Socket>(), any(), any(), any()) }
+    }
+
+    @Test
+    fun testLayeredSocketIsKeptOnRejectWithoutAutoClose() {
+        val factory = PinnedHostSSLSocketFactory(createStore(null), delegate(), PinnedHostSSLSocketFactory.Policy.REJECT, bypass())
+        val plainSocket: Socket = mockk()
+        try {
+            factory.createSocket(plainSocket, "google.com", 443, false)
+            fail("Host without pins must be rejected")
+        } catch (e: SSLHandshakeException) {
+            // expected
+        }
+        verify(exactly = 0) { plainSocket.close() }
+    }
+
+    @Test
+    fun testHostWithoutPinsIsBypassed() {
+        val factory = PinnedHostSSLSocketFactory(createStore(null), delegate(), PinnedHostSSLSocketFactory.Policy.BYPASS, bypass())
+        assertSame(bypassSocket, factory.createSocket("google.com", 443))
+        assertSame(pinnedSocket, factory.createSocket("github.com", 443))
+    }
+
+    private fun delegate(): SSLSocketFactory {
+        val factory: SSLSocketFactory = mockk()
+        every { factory.createSocket(any<String>(), any()) } returns pinnedSocket
+        return factory
+    }
+
+    private fun bypass(): SSLSocketFactory {
+        val factory: SSLSocketFactory = mockk()
+        every { factory.createSocket(any<String>(), any()) } returns bypassSocket
+        return factory
+    }
+
+    private fun createStore(expectedCommonNames: Array<String>?): CertStore {
+        val store = TestUtils.createCertStore(expectedCommonNames, cryptoProvider, secureDataStore, handler)
+        val expires = Date(Date().time + 60_000)
+        val certificates = arrayOf(
+                CertificateInfo("github.com", ByteArray(32), expires),
+                CertificateInfo("*.wultra.com", ByteArray(32), expires),
+                CertificateInfo("expired.com", ByteArray(32), Date(Date().time - 60_000)))
+        store.updateCachedData { CachedData(certificates, Date()) }
+        return store
+    }
+}
@@ -27,6 +27,8 @@ import org.junit.Test;
 
 import java.net.URL;
 
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLEngine;
 import javax.net.ssl.SSLSocketFactory;
 
 /**
@@ -55,5 +57,12 @@ public class SSLPinningIntegrationTest extends CommonKotlinTest {
         SSLPinningX509TrustManager trustManager = new SSLPinningX509TrustManager(store);
         SSLSocketFactory factory2 = SSLPinningIntegration.createSSLPinningSocketFactory(trustManager);
         Assert.assertNotNull(factory2);
+
+        SSLContext context = SSLPinningIntegration.createSSLPinningContext(store);
+        Assert.assertNotNull(context);
+
+        SSLEngine engine = SSLPinningIntegration.createSSLPinningEngine(store, "github.com", 443);
+        Assert.assertTrue(engine.getUseClientMode());
+        Assert.assertEquals("github.com", engine.getPeerHost());
     }
 }
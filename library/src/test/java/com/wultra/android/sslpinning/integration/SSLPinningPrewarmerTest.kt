@@ -0,0 +1,219 @@
+/*
+ * Copyright 2026 Wultra s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package com.wultra.android.sslpinning.integration
+
+import com.wultra.android.sslpinning.CertStore
+import com.wultra.android.sslpinning.CommonKotlinTest
+import com.wultra.android.sslpinning.TestUtils
+import com.wultra.android.sslpinning.model.CachedData
+import com.wultra.android.sslpinning.model.CertificateInfo
+import io.mockk.every
+import io.mockk.just
+import io.mockk.mockk
+import io.mockk.runs
+import io.mockk.verify
+import org.junit.After
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertTrue
+import org.junit.Before
+import org.junit.Test
+import java.net.InetAddress
+import java.net.ServerSocket
+import java.net.Socket
+import java.security.KeyStore
+import java.security.MessageDigest
+import java.security.cert.X509Certificate
+import java.util.Date
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.TimeUnit
+import javax.net.ssl.KeyManagerFactory
+import javax.net.ssl.SSLContext
+import javax.net.ssl.SSLHandshakeException
+import javax.net.ssl.SSLServerSocket
+import javax.net.ssl.SSLSocket
+import javax.net.ssl.SSLSocketFactory
+import kotlin.concurrent.thread
+
+/**
+ * Tests for [SSLPinningPrewarmer] against local servers.
+ */
+class SSLPinningPrewarmerTest : CommonKotlinTest() {
+
+    private lateinit var server: ServerSocket
+    private lateinit var sslSocket: SSLSocket
+    private lateinit var socketFactory: SSLSocketFactory
+    private val handshakes = CountDownLatch(1)
+
+    @Before
+    fun setUpServer() {
+        server = ServerSocket(0, 10, InetAddress.getLoopbackAddress())
+        thread(isDaemon = true) {
+            while (!server.isClosed) {
+                try {
+                    server.accept().close()
+                } catch (e: Exception) {
+                    // server closed
+                }
+            }
+        }
+        sslSocket = mockk()
+        every { sslSocket.startHandshake() } answers { handshakes.countDown() }
+        every { sslSocket.session } returns null
+        every { sslSocket.close() } just runs
+        socketFactory = mockk()
+        every { socketFactory.createSocket(any<Socket>(), any(), any(), any()) } returns sslSocket
+    }
+
+    @After
+    fun tearDownServer() {
+        server.close()
+    }
+
+    @Test
+    fun testPrewarm() {
+        val store = TestUtils.createCertStore(null, cryptoProvider, secureDataStore, handler)
+        val prewarmer = SSLPinningPrewarmer(store, listOf("localhost", "localhost"), server.localPort, socketFactory, 2000)
+        assertEquals(2, prewarmer.prewarm())
+        verify(exactly = 2) {
+            socketFactory.createSocket(any<Socket>(), "localhost", server.localPort, true)
+            sslSocket.startHandshake()
+            sslSocket.close()
+        }
+    }
+
+    @Test
+    fun testFailedHandshake() {
+        every { sslSocket.startHandshake() } throws SSLHandshakeException("untrusted")
+        val store = TestUtils.createCertStore(null, cryptoProvider, secureDataStore, handler)
+        val prewarmer = SSLPinningPrewarmer(store, listOf("localhost"), server.localPort, socketFactory, 2000)
+        assertEquals(0, prewarmer.prewarm())
+        verify(exactly = 1) { sslSocket.close() }
+    }
+
+    @Test
+    fun testPrewarmAfterUpdate() {
+        val store = TestUtils.createCertStore(null, cryptoProvider, secureDataStore, handler)
+        val prewarmer = SSLPinningPrewarmer(store, listOf("localhost"), server.localPort, socketFactory, 2000)
+        prewarmer.start()
+
+        val info = CertificateInfo("localhost", ByteArray(32), Date(Date().time + 60_000))
+        store.updateCachedData { CachedData(arrayOf(info), Date()) }
+
+        assertTrue(handshakes.await(5, TimeUnit.SECONDS))
+        prewarmer.stop()
+    }
+
+    @Test
+    fun testPrewarmAfterFailure() {
+        val failed = CountDownLatch(1)
+        every { socketFactory.createSocket(any<Socket>(), any(), any(), any()) } answers {
+            failed.countDown()
+            throw IllegalStateException("Broken socket factory")
+        } andThen sslSocket
+        val store = TestUtils.createCertStore(null, cryptoProvider, secureDataStore, handler)
+        val prewarmer = SSLPinningPrewarmer(store, listOf("localhost"), server.localPort, socketFactory, 2000)
+        prewarmer.start()
+
+        val info = CertificateInfo("localhost", ByteArray(32), Date(Date().time + 60_000))
+        store.updateCachedData { CachedData(arrayOf(info), Date()) }
+        assertTrue(failed.await(5, TimeUnit.SECONDS))
+        // the next change of the data schedules prewarming again
+        store.updateCachedData { CachedData(arrayOf(info), Date(Date().time + 1000)) }
+
+        assertTrue(handshakes.await(5, TimeUnit.SECONDS))
+        prewarmer.stop()
+    }
+
+    @Test
+    fun testPrewarmTlsSession() {
+        val (tlsServer, certificate) = startTlsServer()
+        try {
+            val store = TestUtils.createCertStore(null, cryptoProvider, secureDataStore, handler)
+            val fingerprint = MessageDigest.getInstance("SHA-256").digest(certificate.encoded)
+            val info = CertificateInfo("localhost", fingerprint, Date(Date().time + 60_000))
+            store.updateCachedData { CachedData(arrayOf(info), Date()) }
+            val clientContext = createClientContext(store)
+
+            val prewarmer = SSLPinningPrewarmer(store, listOf("localhost"), tlsServer.localPort, clientContext.socketFactory, 2000)
+            assertEquals(1, prewarmer.prewarm())
+            assertEquals(1L, store.getValidationStatistics()["localhost"]?.trusted)
+
+            // later connections made with the same factory resume the session without validating it again
+            (clientContext.socketFactory.createSocket("localhost", tlsServer.localPort) as SSLSocket).use {
+                it.startHandshake()
+                assertEquals("TLSv1.3", it.session.protocol)
+            }
+            assertEquals(1L, store.getValidationStatistics()["localhost"]?.trusted)
+        } finally {
+            tlsServer.close()
+        }
+    }
+
+    @Test
+    fun testPrewarmTlsSessionNotPinned() {
+        val (tlsServer, _) = startTlsServer()
+        try {
+            val store = TestUtils.createCertStore(null, cryptoProvider, secureDataStore, handler)
+            val info = CertificateInfo("localhost", ByteArray(32), Date(Date().time + 60_000))
+            store.updateCachedData { CachedData(arrayOf(info), Date()) }
+            val clientContext = createClientContext(store)
+
+            val prewarmer = SSLPinningPrewarmer(store, listOf("localhost"), tlsServer.localPort, clientContext.socketFactory, 2000)
+            assertEquals(0, prewarmer.prewarm())
+            assertEquals(1L, store.getValidationStatistics()["localhost"]?.untrusted)
+        } finally {
+            tlsServer.close()
+        }
+    }
+
+    /**
+     * Starts TLS server with a self-signed certificate for localhost.
+     */
+    private fun startTlsServer(): Pair<SSLServerSocket, X509Certificate> {
+        val password = "password".toCharArray()
+        val keyStore = KeyStore.getInstance("PKCS12")
+        javaClass.getResourceAsStream("/localhost.p12")!!.use { keyStore.load(it, password) }
+        val keyManagerFactory = KeyManagerFactory.getInstance(KeyManagerFactory.getDefaultAlgorithm())
+        keyManagerFactory.init(keyStore, password)
+        val serverContext = SSLContext.getInstance("TLS")
+        serverContext.init(keyManagerFactory.keyManagers, null, null)
+        val tlsServer = serverContext.serverSocketFactory
+                .createServerSocket(0, 10, InetAddress.getLoopbackAddress()) as SSLServerSocket
+        // session tickets of TLS 1.3 are sent after the handshake
+        tlsServer.enabledProtocols = arrayOf("TLSv1.3")
+        thread(isDaemon = true) {
+            while (!tlsServer.isClosed) {
+                try {
+                    (tlsServer.accept() as SSLSocket).use {
+                        it.startHandshake()
+                        // keep the connection open like a real server, until the client closes it
+                        it.inputStream.read()
+                    }
+                } catch (e: Exception) {
+                    // failed handshake or server closed
+                }
+            }
+        }
+        return tlsServer to keyStore.getCertificate("localhost") as X509Certificate
+    }
+
+    private fun createClientContext(store: CertStore): SSLContext {
+        val context = SSLContext.getInstance("TLS")
+        context.init(null, arrayOf(SSLPinningX509TrustManager(store)), null)
+        return context
+    }
+}
@@ -0,0 +1,152 @@
+/*
+ * Copyright 2026 Wultra s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package com.wultra.android.sslpinning.integration
+
+import android.os.Build
+import com.wultra.android.sslpinning.CertStore
+import com.wultra.android.sslpinning.CommonKotlinTest
+import com.wultra.android.sslpinning.TestUtils
+import com.wultra.android.sslpinning.model.CachedData
+import com.wultra.android.sslpinning.model.CertificateInfo
+import io.mockk.every
+import io.mockk.just
+import io.mockk.mockk
+import io.mockk.runs
+import io.mockk.verify
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertTrue
+import org.junit.Assert.fail
+import org.junit.Test
+import java.net.Socket
+import java.security.MessageDigest
+import java.security.cert.CertificateException
+import java.security.cert.X509Certificate
+import java.util.Date
+import javax.net.ssl.SSLSession
+import javax.net.ssl.SSLSocket
+import javax.net.ssl.X509ExtendedTrustManager
+import javax.security.auth.x500.X500Principal
+
+/**
+ * Tests for [SSLPinningX509ExtendedTrustManager].
+ */
+class SSLPinningX509ExtendedTrustManagerTest : CommonKotlinTest() {
+
+    private val certificateData = "github.com certificate".toByteArray()
+
+    @Test
+    fun testEveryHandshakeIsValidated() {
+        val store = createStore()
+        val trustManager = SSLPinningX509ExtendedTrustManager(store)
+        val certificate = mockkCertificate()
+        val socket = mockkSocket()
+
+        trustManager.checkServerTrusted(arrayOf(certificate), "RSA", socket)
+        trustManager.checkServerTrusted(arrayOf(certificate), "RSA", socket)
+        assertEquals(2, trustedValidations(store))
+    }
+
+    @Test
+    fun testChangedFingerprintsAreApplied() {
+        val store = createStore()
+        val trustManager = SSLPinningX509ExtendedTrustManager(store)
+        val certificate = mockkCertificate()
+        val socket = mockkSocket()
+
+        trustManager.checkServerTrusted(arrayOf(certificate), "RSA", socket)
+
+        store.updateCachedData { CachedData(arrayOf(), Date()) }
+        try {
+            trustManager.checkServerTrusted(arrayOf(certificate), "RSA", socket)
+            fail("Certificate should not be trusted")
+        } catch (e: CertificateException) {
+            // expected
+        }
+    }
+
+    @Test
+    fun testPeerHostIdentifiesServer() {
+        val store = createStore()
+        val trustManager = SSLPinningX509ExtendedTrustManager(store, usePeerHost = true)
+        // certificate without usable common name
+        val certificate = mockkCertificate()
+        every { certificate.subjectX500Principal } throws IllegalStateException("Subject should not be parsed")
+
+        trustManager.checkServerTrusted(arrayOf(certificate), "RSA", mockkSocket("github.com"))
+        assertEquals(1, trustedValidations(store))
+
+        try {
+            trustManager.checkServerTrusted(arrayOf(certificate), "RSA", mockkSocket("google.com"))
+            fail("Certificate should not be trusted")
+        } catch (e: CertificateException) {
+            // expected
+        }
+    }
+
+    @Test
+    fun testFactoryTrustManagerPassesHandshakeToPlatform() {
+        val store = createStore()
+        // platform trust manager of an app with domain specific network security config
+        val platform: X509ExtendedTrustManager = mockk()
+        every { platform.checkServerTrusted(any(), any()) } throws
+                CertificateException("Domain specific configurations require that hostname aware checkServerTrusted is used")
+        every { platform.checkServerTrusted(any(), any(), any<Socket>()) } just runs
+        val trustManager = SSLPinningIntegration.createCompositeTrustManager(
+                SSLPinningX509TrustManager(store), platform, Build.VERSION_CODES.N) as X509ExtendedTrustManager
+        val certificate = mockkCertificate()
+        val socket = mockkSocket()
+
+        trustManager.checkServerTrusted(arrayOf(certificate), "RSA", socket)
+        verify(exactly = 1) { platform.checkServerTrusted(arrayOf(certificate), "RSA", socket) }
+        verify(exactly = 0) { platform.checkServerTrusted(any(), any()) }
+        assertEquals(1, trustedValidations(store))
+    }
+
+    @Test
+    fun testFactoryTrustManagerBeforeN() {
+        val trustManager = SSLPinningIntegration.createCompositeTrustManager(
+                SSLPinningX509TrustManager(createStore()), mockk(), Build.VERSION_CODES.M)
+        assertTrue(trustManager is CompositeX509TrustManager)
+    }
+
+    private fun trustedValidations(store: CertStore): Long {
+        return store.getValidationStatistics()["github.com"]?.trusted ?: 0
+    }
+
+    private fun createStore(): CertStore {
+        val store = TestUtils.createCertStore(null, cryptoProvider, secureDataStore, handler)
+        val fingerprint = MessageDigest.getInstance("SHA-256").digest(certificateData)
+        val info = CertificateInfo("github.com", fingerprint, Date(Date().time + 60_000))
+        store.updateCachedData { CachedData(arrayOf(info), Date()) }
+        return store
+    }
+
+    private fun mockkCertificate(): X509Certificate {
+        val certificate: X509Certificate = mockk()
+        every { certificate.encoded } answers { certificateData.copyOf() }
+        every { certificate.subjectX500Principal } returns X500Principal("CN=github.com")
+        return certificate
+    }
+
+    private fun mockkSocket(peerHost: String? = null): SSLSocket {
+        val session: SSLSession = mockk()
+        every { session.peerHost } returns peerHost
+        val socket: SSLSocket = mockk()
+        every { socket.handshakeSession } returns session
+        return socket
+    }
+}
@@ -72,6 +72,22 @@ class PowerAuthSslPinningValidationStrategyTest : CommonKotlinTest() {
         verify { secureDataStore.load(any()) }
     }
 
+    @Test
+    fun testSocketFactoryIsSharedPerCertStore() {
+        val publicKeyBytes = Base64.getDecoder().decode(
+            "BC3kV9OIDnMuVoCdDR9nEA/JidJLTTDLuSA2TSZsGgODSshfbZg31MS90WC/HdbU/A5WL5GmyDkE/iks6INv+XE=")
+        val config = TestUtils.getCertStoreConfiguration(
+            Date(), arrayOf("github.com"), URL("https://test.wultra.com"), publicKeyBytes, null)
+        val store = CertStore(config, cryptoProvider, secureDataStore)
+        val otherStore = CertStore(config, cryptoProvider, secureDataStore)
+
+        val strategy = PowerAuthSslPinningValidationStrategy(store)
+        val factory = strategy.sslSocketFactory
+        Assert.assertSame(factory, strategy.sslSocketFactory)
+        Assert.assertSame(factory, PowerAuthSslPinningValidationStrategy(store).sslSocketFactory)
+        Assert.assertNotSame(factory, PowerAuthSslPinningValidationStrategy(otherStore).sslSocketFactory)
+    }
+
     @Test(expected = SSLHandshakeException::class)
     @Throws(Exception::class)
     fun testPowerAuthSslPinningValidationStrategyOnGithubFailure() {
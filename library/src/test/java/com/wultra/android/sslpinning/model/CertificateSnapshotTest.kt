@@ -0,0 +1,80 @@
+/*
+ * Copyright 2026 Wultra s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package com.wultra.android.sslpinning.model
+
+import org.junit.Assert
+import org.junit.Test
+import java.util.Date
+
+/**
+ * Tests for [CertificateSnapshot].
+ */
+class CertificateSnapshotTest {
+
+    @Test
+    fun testEmptySnapshot() {
+        Assert.assertTrue(CertificateSnapshot.EMPTY.isEmpty)
+        val snapshot = CertificateSnapshot.create(null, emptyArray(), 1)
+        Assert.assertTrue(snapshot.isEmpty)
+        Assert.assertEquals(1, snapshot.generation)
+        Assert.assertEquals(0, snapshot.certificatesFor("github.com").size)
+    }
+
+    @Test
+    fun testMergedCertificatesAndIndex() {
+        val date = Date()
+        val stored = arrayOf(
+                CertificateInfo("github.com", "aaa".toByteArray(), Date(date.time + 2000)),
+                CertificateInfo("github.com", "bbb".toByteArray(), Date(date.time + 1000)),
+                CertificateInfo("wultra.com", "ccc".toByteArray(), date)
+        )
+        val fallback = arrayOf(
+                CertificateInfo("github.com", "ddd".toByteArray(), date)
+        )
+        val snapshot = CertificateSnapshot.create(CachedData(stored, date), fallback, 2)
+
+        Assert.assertFalse(snapshot.isEmpty)
+        Assert.assertArrayEquals(stored + fallback, snapshot.certificates)
+
+        val github = snapshot.certificatesFor("github.com")
+        Assert.assertEquals(3, github.size)
+        Assert.assertEquals("aaa", String(github[0].fingerprint))
+        Assert.assertEquals("bbb", String(github[1].fingerprint))
+        Assert.assertEquals("ddd", String(github[2].fingerprint))
+
+        Assert.assertEquals(1, snapshot.certificatesFor("wultra.com").size)
+        Assert.assertEquals(0, snapshot.certificatesFor("google.com").size)
+    }
+
+    @Test
+    fun testCommonNameForHost() {
+        val date = Date()
+        val stored = arrayOf(
+                CertificateInfo("github.com", "aaa".toByteArray(), date),
+                CertificateInfo("*.wultra.com", "bbb".toByteArray(), date),
+                CertificateInfo("api.wultra.com", "ccc".toByteArray(), date)
+        )
+        val snapshot = CertificateSnapshot.create(CachedData(stored, date), emptyArray(), 1)
+
+        Assert.assertEquals("github.com", snapshot.commonNameForHost("GitHub.com."))
+        Assert.assertEquals("api.wultra.com", snapshot.commonNameForHost("api.wultra.com"))
+        Assert.assertEquals("*.wultra.com", snapshot.commonNameForHost("test.wultra.com"))
+        // wildcard covers just one label
+        Assert.assertEquals("a.test.wultra.com", snapshot.commonNameForHost("a.test.wultra.com"))
+        Assert.assertEquals("google.com", snapshot.commonNameForHost("google.com"))
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright 2026 Wultra s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package com.wultra.android.sslpinning.service
+
+import com.sun.net.httpserver.HttpServer
+import com.wultra.android.sslpinning.CommonKotlinTest
+import org.junit.After
+import org.junit.Assert.assertArrayEquals
+import org.junit.Assert.assertEquals
+import org.junit.Assert.fail
+import org.junit.Before
+import org.junit.Test
+import java.io.ByteArrayOutputStream
+import java.net.InetAddress
+import java.net.InetSocketAddress
+import java.net.URL
+import java.util.Collections
+import java.util.zip.GZIPOutputStream
+
+/**
+ * Tests for [RestApi] against a local HTTP server.
+ */
+class RestApiTest : CommonKotlinTest() {
+
+    private lateinit var server: HttpServer
+    private val clientPorts = Collections.synchronizedList(mutableListOf<Int>())
+    private val body = "{\"fingerprints\":[]}".toByteArray()
+
+    @Before
+    fun setUpServer() {
+        server = HttpServer.create(InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0)
+        server.createContext("/ok") { exchange ->
+            clientPorts.add(exchange.remoteAddress.port)
+            exchange.sendResponseHeaders(200, body.size.toLong())
+            exchange.responseBody.use { it.write(body) }
+        }
+        server.createContext("/gzip") { exchange ->
+            clientPorts.add(exchange.remoteAddress.port)
+            if (exchange.requestHeaders.getFirst("Accept-Encoding") != "gzip") {
+                exchange.sendResponseHeaders(406, -1)
+                exchange.close()
+                return@createContext
+            }
+            val compressed = ByteArrayOutputStream().also { output ->
+                GZIPOutputStream(output).use { it.write(body) }
+            }.toByteArray()
+            exchange.responseHeaders.add("Content-Encoding", "gzip")
+            exchange.sendResponseHeaders(200, compressed.size.toLong())
+            exchange.responseBody.use { it.write(compressed) }
+        }
+        server.createContext("/gzip-empty") { exchange ->
+            exchange.responseHeaders.add("Content-Encoding", "gzip")
+            exchange.sendResponseHeaders(304, -1)
+            exchange.close()
+        }
+        server.createContext("/error") { exchange ->
+            clientPorts.add(exchange.remoteAddress.port)
+            exchange.sendResponseHeaders(500, body.size.toLong())
+            exchange.responseBody.use { it.write(body) }
+        }
+        server.start()
+    }
+
+    @After
+    fun tearDownServer() {
+        server.stop(0)
+    }
+
+    @Test
+    fun testKeepAliveReusesConnection() {
+        val api = RestApi(url("/ok"), null, true)
+        repeat(3) {
+            val response = api.getFingerprints(RemoteDataRequest(emptyMap()))
+            assertEquals(200, response.responseCode)
+            assertArrayEquals(body, response.data)
+        }
+        assertEquals(3, clientPorts.size)
+        assertEquals(1, clientPorts.toSet().size)
+    }
+
+    @Test
+    fun testConnectionClosedWithoutKeepAlive() {
+        val api = RestApi(url("/ok"), null, false)
+        repeat(3) {
+            api.getFingerprints(RemoteDataRequest(emptyMap()))
+        }
+        assertEquals(3, clientPorts.toSet().size)
+    }
+
+    @Test
+    fun testErrorResponse() {
+        val api = RestApi(url("/error"), null, true)
+        try {
+            api.getFingerprints(RemoteDataRequest(emptyMap()))
+            fail("Request should fail")
+        } catch (e: RestApi.NetworkException) {
+            assertEquals(500, e.response.responseCode)
+            assertArrayEquals(body, e.response.data)
+        }
+    }
+
+    @Test
+    fun testGzipResponseIsDecompressed() {
+        val api = RestApi(url("/gzip"), null, true)
+        repeat(2) {
+            val response = api.getFingerprints(RemoteDataRequest(emptyMap()))
+            assertEquals(200, response.responseCode)
+            assertArrayEquals(body, response.data)
+        }
+        assertEquals(1, clientPorts.toSet().size)
+    }
+
+    @Test
+    fun testGzipResponseWithoutBody() {
+        val api = RestApi(url("/gzip-empty"), null, true)
+        val response = api.getFingerprints(RemoteDataRequest(emptyMap()))
+        assertEquals(304, response.responseCode)
+        assertEquals(0, response.data.size)
+    }
+
+    private fun url(path: String): URL {
+        return URL("http://127.0.0.1:${server.address.port}$path")
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright 2026 Wultra s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package com.wultra.android.sslpinning.util
+
+import org.junit.Assert.assertArrayEquals
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertSame
+import org.junit.Test
+
+/**
+ * Tests for [CertificateFingerprintCache].
+ */
+class CertificateFingerprintCacheTest {
+
+    @Test
+    fun testRepeatedLookupIsCached() {
+        val cache = CertificateFingerprintCache()
+        var computed = 0
+        val compute: (ByteArray) -> ByteArray = {
+            computed += 1
+            byteArrayOf(1, 2, 3)
+        }
+
+        // every handshake decodes a new certificate with the same content
+        val first = cache.fingerprint("certificate".toByteArray(), compute)
+        val second = cache.fingerprint("certificate".toByteArray(), compute)
+
+        assertArrayEquals(byteArrayOf(1, 2, 3), first)
+        assertSame(first, second)
+        assertEquals(1, computed)
+        assertEquals(CacheStatistics(hits = 1, misses = 1, evictions = 0), cache.statistics)
+        assertEquals(0.5, cache.statistics.hitRate, 0.0)
+    }
+
+    @Test
+    fun testDifferentCertificatesAreNotMixed() {
+        val cache = CertificateFingerprintCache(capacity = 1)
+        cache.fingerprint("first".toByteArray()) { byteArrayOf(1) }
+        assertArrayEquals(byteArrayOf(2), cache.fingerprint("second".toByteArray()) { byteArrayOf(2) })
+        assertEquals(CacheStatistics(hits = 0, misses = 2, evictions = 1), cache.statistics)
+    }
+
+    @Test
+    fun testCacheIsBounded() {
+        val cache = CertificateFingerprintCache(capacity = 4)
+        repeat(32) { index ->
+            cache.fingerprint(byteArrayOf(index.toByte())) { byteArrayOf(index.toByte()) }
+        }
+        val statistics = cache.statistics
+        assertEquals(32, statistics.misses)
+        assertEquals(0, statistics.hits)
+        // at most 4 entries may remain in the cache
+        assertEquals(true, statistics.evictions >= 28)
+    }
+}
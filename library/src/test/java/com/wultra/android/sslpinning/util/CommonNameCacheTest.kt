@@ -0,0 +1,67 @@
+/*
+ * Copyright 2026 Wultra s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package com.wultra.android.sslpinning.util
+
+import org.junit.Assert.assertEquals
+import org.junit.Test
+import javax.security.auth.x500.X500Principal
+
+/**
+ * Tests for [CommonNameCache].
+ */
+class CommonNameCacheTest {
+
+    @Test
+    fun testEqualPrincipalsShareEntry() {
+        val cache = CommonNameCache()
+        var parsed = 0
+        val parse: (X500Principal) -> String = {
+            parsed += 1
+            DistinguishedNameParser(it).findMostSpecific("CN")
+        }
+
+        val cn1 = cache.commonName(X500Principal("CN=github.com, O=GitHub, C=US"), parse)
+        val cn2 = cache.commonName(X500Principal("CN=github.com, O=GitHub, C=US"), parse)
+
+        assertEquals("github.com", cn1)
+        assertEquals("github.com", cn2)
+        assertEquals(1, parsed)
+        assertEquals(CacheStatistics(hits = 1, misses = 1, evictions = 0), cache.statistics)
+    }
+
+    @Test
+    fun testLeastRecentlyUsedEviction() {
+        val cache = CommonNameCache(capacity = 2)
+        val parse: (X500Principal) -> String = { DistinguishedNameParser(it).findMostSpecific("CN") }
+        val a = X500Principal("CN=a.com")
+        val b = X500Principal("CN=b.com")
+        val c = X500Principal("CN=c.com")
+
+        cache.commonName(a, parse)
+        cache.commonName(b, parse)
+        // touch "a", so "b" becomes the eldest entry
+        cache.commonName(a, parse)
+        cache.commonName(c, parse)
+        assertEquals(1, cache.statistics.evictions)
+
+        // "a" is still cached, "b" was evicted
+        cache.commonName(a, parse)
+        assertEquals(2, cache.statistics.hits)
+        cache.commonName(b, parse)
+        assertEquals(4, cache.statistics.misses)
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright 2026 Wultra s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package com.wultra.android.sslpinning.util;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import javax.security.auth.x500.X500Principal;
+
+/**
+ * Differential tests of {@link DerDistinguishedNameParser} against {@link DistinguishedNameParser}.
+ */
+public class DerDistinguishedNameParserTest {
+
+    private static final String[] DISTINGUISHED_NAMES = {
+            "CN=github.com, O=\"GitHub, Inc.\", L=San Francisco, ST=California, C=US, SERIALNUMBER=5157550, OID.1.3.6.1.4.1.311.60.2.1.2=Delaware, OID.1.3.6.1.4.1.311.60.2.1.3=US, OID.2.5.4.15=Private Organization",
+            "CN=developer.android.com, O=Google LLC, L=Mountain View, ST=California, C=US",
+            "CN=twitter.com, OU=tsa_o Point of Presence, O=\"Twitter, Inc.\", L=San Francisco, ST=California, C=US",
+            "CN=api.twitter.com, OU=tsa_o Point of Presence, O=\"Twitter, Inc.\", L=San Francisco, ST=California, C=US",
+            "CN=*.wildcard.example.com",
+            "O=Wultra, C=CZ",
+            "CN=outer, O=Org, CN=inner",
+            "CN=a+CN=b, O=x",
+            "CN=b+CN=a, O=x",
+            "O=x+CN=z, C=CZ",
+            "CN=\\ leading space",
+            "CN=trailing space\\ ",
+            "CN=\\#hash",
+            "CN=comma\\, plus\\+ semi\\; eq\\= lt\\< gt\\> quote\\\" bs\\\\",
+            "CN=\u017dlu\u0165ou\u010dk\u00fd k\u016f\u0148.cz",
+            "CN=\u65e5\u672c\u8a9e.jp",
+            "CN=emoji \ud83d\ude00",
+            // UTF8String
+            "CN=#0c03616263",
+            // PrintableString
+            "CN=#130461626364",
+            // OCTET STRING, no string representation
+            "CN=#0403616263",
+            // UniversalString, no string representation
+            "CN=#1c0400000061",
+    };
+
+    @Test
+    public void testSameResultAsStringParser() {
+        for (String dn : DISTINGUISHED_NAMES) {
+            // re-create the principal from DER to get the same state as in a parsed certificate
+            X500Principal principal = new X500Principal(new X500Principal(dn).getEncoded());
+            String expected = new DistinguishedNameParser(principal).findMostSpecific("CN");
+            String cn = new DerDistinguishedNameParser(principal).findMostSpecific(DerDistinguishedNameParser.COMMON_NAME_OID);
+            Assert.assertEquals(dn, expected, cn);
+        }
+    }
+
+    @Test
+    public void testBmpString() {
+        X500Principal principal = new X500Principal("CN=#1e0400610062");
+        String cn = new DerDistinguishedNameParser(principal).findMostSpecific(DerDistinguishedNameParser.COMMON_NAME_OID);
+        Assert.assertEquals("ab", cn);
+    }
+
+    @Test
+    public void testEmptyCommonName() {
+        X500Principal principal = new X500Principal("CN=");
+        String cn = new DerDistinguishedNameParser(principal).findMostSpecific(DerDistinguishedNameParser.COMMON_NAME_OID);
+        Assert.assertEquals("", cn);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testTruncatedData() {
+        byte[] encoded = new X500Principal("CN=github.com, O=GitHub").getEncoded();
+        byte[] truncated = new byte[encoded.length - 3];
+        System.arraycopy(encoded, 0, truncated, 0, truncated.length);
+        new DerDistinguishedNameParser(truncated).findMostSpecific(DerDistinguishedNameParser.COMMON_NAME_OID);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testUnexpectedTag() {
+        byte[] encoded = new X500Principal("CN=github.com").getEncoded();
+        // replace SET tag of the first RDN with SEQUENCE
+        encoded[2] = 0x30;
+        new DerDistinguishedNameParser(encoded).findMostSpecific(DerDistinguishedNameParser.COMMON_NAME_OID);
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright 2026 Wultra s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package com.wultra.android.sslpinning.util
+
+import org.junit.After
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertTrue
+import org.junit.Assert.fail
+import org.junit.Test
+import java.util.Collections
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.Executors
+import java.util.concurrent.TimeUnit
+
+/**
+ * Tests for [ParallelVerifier].
+ */
+class ParallelVerifierTest {
+
+    private val executor = Executors.newFixedThreadPool(3)
+
+    @After
+    fun tearDown() {
+        executor.shutdownNow()
+        executor.awaitTermination(1, TimeUnit.SECONDS)
+    }
+
+    @Test
+    fun testAllItemsPass() {
+        val verifier = ParallelVerifier(executor, 4, minItemsPerThread = 1)
+        val items = (0 until 100).toList()
+        val checked = Collections.synchronizedSet(HashSet<Int>())
+        val threads = Collections.synchronizedSet(HashSet<Thread>())
+        assertEquals(-1, verifier.firstFailure(items) {
+            threads.add(Thread.currentThread())
+            Thread.sleep(1)
+            checked.add(it)
+        })
+        assertEquals(items.toSet(), checked)
+        assertTrue(threads.contains(Thread.currentThread()))
+    }
+
+    @Test
+    fun testFirstFailureInOrderIsReported() {
+        val verifier = ParallelVerifier(executor, 4, minItemsPerThread = 1)
+        val items = (0 until 200).toList()
+        repeat(20) {
+            assertEquals(37, verifier.firstFailure(items) { item ->
+                // later failures are found faster
+                if (item < 37) Thread.sleep(1)
+                item != 37 && item % 50 != 49
+            })
+        }
+    }
+
+    @Test
+    fun testSmallInputIsCheckedOnCallingThread() {
+        val verifier = ParallelVerifier(executor, 4)
+        val caller = Thread.currentThread()
+        assertEquals(2, verifier.firstFailure(listOf(1, 2, 3)) { item ->
+            assertEquals(caller, Thread.currentThread())
+            item != 3
+        })
+    }
+
+    @Test
+    fun testExceptionOfFirstFailureIsThrown() {
+        val verifier = ParallelVerifier(executor, 4, minItemsPerThread = 1)
+        val items = (0 until 50).toList()
+        try {
+            verifier.firstFailure(items) { item ->
+                if (item == 10) throw IllegalStateException("item $item")
+                item != 20
+            }
+            fail("Exception expected")
+        } catch (e: IllegalStateException) {
+            assertEquals("item 10", e.message)
+        }
+    }
+
+    @Test
+    fun testBusyExecutorDoesNotBlock() {
+        val blocked = Executors.newSingleThreadExecutor()
+        try {
+            val gate = CountDownLatch(1)
+            blocked.execute { gate.await() }
+            val verifier = ParallelVerifier(blocked, 4, minItemsPerThread = 1)
+            assertEquals(-1, verifier.firstFailure((0 until 20).toList()) { true })
+            gate.countDown()
+        } finally {
+            blocked.shutdownNow()
+        }
+    }
+}